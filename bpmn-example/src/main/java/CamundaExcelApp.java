@@ -3,7 +3,7 @@ package com.example.camundaexcel;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+@SpringBootApplication(scanBasePackages = {"config", "controller", "delegate", "service"})
 public class CamundaExcelApp {
   public static void main(String[] args) {
     SpringApplication.run(CamundaExcelApp.class, args);
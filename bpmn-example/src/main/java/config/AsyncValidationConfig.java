@@ -0,0 +1,53 @@
+package config;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Puts an async continuation before {@code task_validate} when
+ * {@code excel.validation.async} is on (the default). The upload request then
+ * only commits the new instance and a job; the job executor runs the
+ * validation on its own bounded pool, configured under
+ * {@code camunda.bpm.job-execution}.
+ *
+ * Done as a parse listener rather than in the BPMN so the same model can be
+ * run synchronously, e.g. for tests or small deployments.
+ */
+@Configuration
+public class AsyncValidationConfig {
+
+  static final String VALIDATE_ACTIVITY = "task_validate";
+
+  @Bean
+  public AbstractProcessEnginePlugin asyncValidationPlugin(
+      @Value("${excel.validation.async:true}") boolean async) {
+    return new AbstractProcessEnginePlugin() {
+      @Override
+      public void preInit(ProcessEngineConfigurationImpl configuration) {
+        if (!async) return;
+        List<BpmnParseListener> listeners = configuration.getCustomPreBPMNParseListeners();
+        if (listeners == null) {
+          listeners = new ArrayList<>();
+          configuration.setCustomPreBPMNParseListeners(listeners);
+        }
+        listeners.add(new AbstractBpmnParseListener() {
+          @Override
+          public void parseServiceTask(Element serviceTaskElement, ScopeImpl scope, ActivityImpl activity) {
+            if (VALIDATE_ACTIVITY.equals(activity.getId())) activity.setAsyncBefore(true);
+          }
+        });
+      }
+    };
+  }
+}
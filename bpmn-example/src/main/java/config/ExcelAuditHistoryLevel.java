@@ -0,0 +1,72 @@
+package config;
+
+import org.camunda.bpm.engine.impl.history.AbstractHistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventType;
+import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
+import org.camunda.bpm.engine.runtime.VariableInstance;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * History level {@code excel-audit}: what the audit trail of an Excel upload
+ * needs and nothing else. It records process instances (start, end and
+ * business key changes), user tasks (who fixed and who approved), incidents,
+ * the user operation log, and the latest value of a few variables.
+ *
+ * Activity instances, variable update details, jobs and identity links are
+ * not written. With full history those make up most of the rows per
+ * instance, and Cockpit's history view is the only thing that reads them.
+ */
+public class ExcelAuditHistoryLevel extends AbstractHistoryLevel {
+
+  public static final String NAME = "excel-audit";
+
+  /** Variables whose latest value is kept in ACT_HI_VARINST. */
+  static final Set<String> AUDITED_VARIABLES = Set.of(
+      "fileName", "fileHash", "hasErrors", "issueCount", "issuesRef", "approvedBy", "publishedAt");
+
+  private static final Set<HistoryEventTypes> RECORDED = EnumSet.of(
+      HistoryEventTypes.PROCESS_INSTANCE_START,
+      HistoryEventTypes.PROCESS_INSTANCE_UPDATE,
+      HistoryEventTypes.PROCESS_INSTANCE_MIGRATE,
+      HistoryEventTypes.PROCESS_INSTANCE_END,
+      HistoryEventTypes.TASK_INSTANCE_CREATE,
+      HistoryEventTypes.TASK_INSTANCE_UPDATE,
+      HistoryEventTypes.TASK_INSTANCE_MIGRATE,
+      HistoryEventTypes.TASK_INSTANCE_COMPLETE,
+      HistoryEventTypes.TASK_INSTANCE_DELETE,
+      HistoryEventTypes.INCIDENT_CREATE,
+      HistoryEventTypes.INCIDENT_MIGRATE,
+      HistoryEventTypes.INCIDENT_DELETE,
+      HistoryEventTypes.INCIDENT_RESOLVE,
+      HistoryEventTypes.INCIDENT_UPDATE,
+      HistoryEventTypes.USER_OPERATION_LOG);
+
+  private static final Set<HistoryEventTypes> VARIABLE_EVENTS = EnumSet.of(
+      HistoryEventTypes.VARIABLE_INSTANCE_CREATE,
+      HistoryEventTypes.VARIABLE_INSTANCE_UPDATE,
+      HistoryEventTypes.VARIABLE_INSTANCE_MIGRATE,
+      HistoryEventTypes.VARIABLE_INSTANCE_DELETE);
+
+  @Override
+  public int getId() {
+    return 11;
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isHistoryEventProduced(HistoryEventType eventType, Object entity) {
+    if (RECORDED.contains(eventType)) return true;
+    if (VARIABLE_EVENTS.contains(eventType)) {
+      // The engine also asks with a null entity, meaning "could any be produced".
+      return entity == null
+          || (entity instanceof VariableInstance v && AUDITED_VARIABLES.contains(v.getName()));
+    }
+    return false;
+  }
+}
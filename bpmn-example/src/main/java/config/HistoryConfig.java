@@ -0,0 +1,33 @@
+package config;
+
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers {@link ExcelAuditHistoryLevel} so {@code camunda.bpm.history-level}
+ * can name it. Cleanup settings live in application.yml.
+ */
+@Configuration
+public class HistoryConfig {
+
+  @Bean
+  public AbstractProcessEnginePlugin excelAuditHistoryLevelPlugin() {
+    return new AbstractProcessEnginePlugin() {
+      @Override
+      public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<HistoryLevel> levels = configuration.getCustomHistoryLevels();
+        if (levels == null) {
+          levels = new ArrayList<>();
+          configuration.setCustomHistoryLevels(levels);
+        }
+        levels.add(new ExcelAuditHistoryLevel());
+      }
+    };
+  }
+}
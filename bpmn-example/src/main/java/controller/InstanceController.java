@@ -0,0 +1,64 @@
+package controller;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Polling endpoint for clients of the asynchronous upload: {@code /api/start}
+ * returns as soon as the instance is created, and this reports where
+ * validation got to.
+ */
+@RestController
+@RequestMapping("/api/instances")
+public class InstanceController {
+
+  public enum State { VALIDATING, FIX_REQUIRED, AWAITING_APPROVAL, PUBLISHING, COMPLETED, FAILED }
+
+  public record InstanceStatus(String processInstanceId, State state, List<String> activities,
+                               Boolean hasErrors, Integer issueCount, String issuesRef) {}
+
+  private final RuntimeService runtimeService;
+  private final HistoryService historyService;
+
+  public InstanceController(RuntimeService runtimeService, HistoryService historyService) {
+    this.runtimeService = runtimeService;
+    this.historyService = historyService;
+  }
+
+  @GetMapping("/{processInstanceId}/status")
+  public ResponseEntity<InstanceStatus> status(@PathVariable String processInstanceId) {
+    ProcessInstance pi = runtimeService.createProcessInstanceQuery()
+        .processInstanceId(processInstanceId)
+        .singleResult();
+    if (pi == null) {
+      HistoricProcessInstance done = historyService.createHistoricProcessInstanceQuery()
+          .processInstanceId(processInstanceId)
+          .singleResult();
+      if (done == null) return ResponseEntity.notFound().build();
+      return ResponseEntity.ok(new InstanceStatus(processInstanceId, State.COMPLETED, List.of(),
+          null, null, null));
+    }
+
+    List<String> activities = runtimeService.getActiveActivityIds(processInstanceId);
+    Map<String, Object> vars = runtimeService.getVariables(processInstanceId,
+        List.of("hasErrors", "issueCount", "issuesRef"));
+    boolean failed = runtimeService.createIncidentQuery().processInstanceId(processInstanceId).count() > 0;
+
+    State state;
+    if (failed) state = State.FAILED;
+    else if (activities.contains("task_fix")) state = State.FIX_REQUIRED;
+    else if (activities.contains("task_approve")) state = State.AWAITING_APPROVAL;
+    else if (activities.contains("task_publish")) state = State.PUBLISHING;
+    else state = State.VALIDATING;
+
+    return ResponseEntity.ok(new InstanceStatus(processInstanceId, state, activities,
+        (Boolean) vars.get("hasErrors"), (Integer) vars.get("issueCount"), (String) vars.get("issuesRef")));
+  }
+}
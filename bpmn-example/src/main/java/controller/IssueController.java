@@ -0,0 +1,35 @@
+package controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import service.ExcelValidationService.Issue;
+import service.IssueStore;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/issues")
+public class IssueController {
+
+  static final int MAX_LIMIT = 1000;
+
+  private final IssueStore issueStore;
+
+  public IssueController(IssueStore issueStore) {
+    this.issueStore = issueStore;
+  }
+
+  public record IssuePage(String ref, int total, int offset, int limit, List<Issue> items) {}
+
+  /** Full issue list for a validation run, {@code ref} being the process's {@code issuesRef}. */
+  @GetMapping("/{ref}")
+  public ResponseEntity<IssuePage> page(@PathVariable String ref,
+                                        @RequestParam(defaultValue = "0") int offset,
+                                        @RequestParam(defaultValue = "100") int limit) {
+    if (offset < 0 || limit < 1) return ResponseEntity.badRequest().build();
+    int size = Math.min(limit, MAX_LIMIT);
+    int total = issueStore.count(ref);
+    List<Issue> items = offset >= total ? List.of() : issueStore.page(ref, offset, size);
+    return ResponseEntity.ok(new IssuePage(ref, total, offset, size, items));
+  }
+}
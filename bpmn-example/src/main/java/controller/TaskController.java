@@ -2,9 +2,12 @@ package controller;
 
 import org.camunda.bpm.engine.TaskService;
 import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.task.TaskQuery;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import service.BulkTaskCompletionService;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -12,20 +15,72 @@ import java.util.Map;
 @RequestMapping("/tasks")
 public class TaskController {
 
+  static final int DEFAULT_PAGE_SIZE = 50;
+  static final int MAX_PAGE_SIZE = 500;
+  static final int MAX_BULK_SIZE = 10_000;
+
   private final TaskService taskService;
+  private final BulkTaskCompletionService bulkCompletion;
 
-  public TaskController(TaskService taskService) {
+  public TaskController(TaskService taskService, BulkTaskCompletionService bulkCompletion) {
     this.taskService = taskService;
+    this.bulkCompletion = bulkCompletion;
   }
 
+  public record BulkCompleteRequest(List<String> taskIds, Map<String, Object> variables,
+                                    Integer chunkSize, Integer parallelism) {}
+
+  /** The fields task lists need; nullable ones (assignee) are simply null. */
+  public record TaskSummary(String id, String name, String taskDefinitionKey, String assignee,
+                            String processInstanceId, Date created) {
+    static TaskSummary of(Task t) {
+      return new TaskSummary(t.getId(), t.getName(), t.getTaskDefinitionKey(), t.getAssignee(),
+          t.getProcessInstanceId(), t.getCreateTime());
+    }
+  }
+
+  /**
+   * One page of open tasks, oldest first. Only {@code maxResults} rows are
+   * read, so the cost does not grow with the number of open tasks. As in
+   * Tasklist, {@code candidateGroup} matches unassigned tasks only.
+   */
   @GetMapping
-  public List<Map<String, String>> list() {
-    return taskService.createTaskQuery().list().stream()
-        .map(t -> Map.of("id", t.getId(),
-                         "name", t.getName(),
-                         "assignee", t.getAssignee(),
-                         "processInstanceId", t.getProcessInstanceId()))
+  public ResponseEntity<List<TaskSummary>> list(
+      @RequestParam(defaultValue = "0") int firstResult,
+      @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int maxResults,
+      @RequestParam(required = false) String candidateGroup,
+      @RequestParam(required = false) String processDefinitionKey,
+      @RequestParam(required = false) String taskDefinitionKey,
+      @RequestParam(required = false) String assignee) {
+    if (firstResult < 0 || maxResults < 1) return ResponseEntity.badRequest().build();
+    List<TaskSummary> page = query(candidateGroup, processDefinitionKey, taskDefinitionKey, assignee)
+        .orderByTaskCreateTime().asc()
+        .orderByTaskId().asc()
+        .listPage(firstResult, Math.min(maxResults, MAX_PAGE_SIZE))
+        .stream()
+        .map(TaskSummary::of)
         .toList();
+    return ResponseEntity.ok(page);
+  }
+
+  /** Number of tasks {@link #list} would page through with the same filters. */
+  @GetMapping("/count")
+  public Map<String, Long> count(
+      @RequestParam(required = false) String candidateGroup,
+      @RequestParam(required = false) String processDefinitionKey,
+      @RequestParam(required = false) String taskDefinitionKey,
+      @RequestParam(required = false) String assignee) {
+    return Map.of("count", query(candidateGroup, processDefinitionKey, taskDefinitionKey, assignee).count());
+  }
+
+  private TaskQuery query(String candidateGroup, String processDefinitionKey, String taskDefinitionKey,
+                          String assignee) {
+    TaskQuery q = taskService.createTaskQuery().active();
+    if (candidateGroup != null) q.taskCandidateGroup(candidateGroup);
+    if (processDefinitionKey != null) q.processDefinitionKey(processDefinitionKey);
+    if (taskDefinitionKey != null) q.taskDefinitionKey(taskDefinitionKey);
+    if (assignee != null) q.taskAssignee(assignee);
+    return q;
   }
 
   @PostMapping("/{taskId}/complete")
@@ -35,4 +90,19 @@ public class TaskController {
     taskService.complete(taskId);
     return ResponseEntity.ok(Map.of("completed", taskId));
   }
+
+  /**
+   * Completes up to {@value #MAX_BULK_SIZE} tasks with the same variables, in
+   * transactional chunks. The response has one outcome per distinct id, in
+   * request order, and the throughput achieved.
+   */
+  @PostMapping("/complete")
+  public ResponseEntity<BulkTaskCompletionService.Result> completeAll(@RequestBody BulkCompleteRequest request)
+      throws Exception {
+    if (request.taskIds() == null || request.taskIds().isEmpty() || request.taskIds().size() > MAX_BULK_SIZE) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.ok(bulkCompletion.complete(request.taskIds(), request.variables(),
+        request.chunkSize(), request.parallelism()));
+  }
 }
@@ -1,38 +1,131 @@
 package controller;
 
 import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import service.UploadStore;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
 public class UploadController {
 
+  private static final String PROCESS_KEY = "excelFlow";
+
   private final RuntimeService runtimeService;
+  private final UploadStore uploadStore;
 
-  public UploadController(RuntimeService runtimeService) {
+  public UploadController(RuntimeService runtimeService, UploadStore uploadStore) {
     this.runtimeService = runtimeService;
+    this.uploadStore = uploadStore;
   }
 
   @PostMapping(value = "/start", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
   public ResponseEntity<?> start(@RequestPart("file") MultipartFile file) throws Exception {
-    String filename = StringUtils.cleanPath(file.getOriginalFilename() == null ? "input.xlsx" : file.getOriginalFilename());
-    Path dest = Path.of(System.getProperty("java.io.tmpdir"), System.currentTimeMillis() + "-" + filename);
-    Files.copy(file.getInputStream(), dest);
+    try (InputStream in = file.getInputStream()) {
+      return start(in, file.getOriginalFilename());
+    }
+  }
+
+  /** Raw body upload: the request stream is hashed and written to the store with no intermediate copy. */
+  @PostMapping(value = "/start", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<?> startRaw(InputStream body,
+                                    @RequestHeader(value = "X-File-Name", required = false) String filename)
+      throws Exception {
+    return start(body, filename);
+  }
+
+  /**
+   * Replaces the workbook of a running instance, typically while its "Fix
+   * Errors" task is open. Completing that task revalidates the new file;
+   * with the row cache enabled, rows the user did not touch are not parsed
+   * again. The business key follows at that validation; until then, duplicate
+   * detection and the upload cleanup job find the instance by its
+   * {@code fileHash} variable.
+   */
+  @PutMapping(value = "/instances/{processInstanceId}/file", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+  public ResponseEntity<?> replaceFile(@PathVariable String processInstanceId,
+                                       @RequestPart("file") MultipartFile file) throws Exception {
+    try (InputStream in = file.getInputStream()) {
+      return replaceFile(processInstanceId, in, file.getOriginalFilename());
+    }
+  }
+
+  @PutMapping(value = "/instances/{processInstanceId}/file", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+  public ResponseEntity<?> replaceFileRaw(@PathVariable String processInstanceId, InputStream body,
+                                          @RequestHeader(value = "X-File-Name", required = false) String filename)
+      throws Exception {
+    return replaceFile(processInstanceId, body, filename);
+  }
+
+  private ResponseEntity<?> replaceFile(String processInstanceId, InputStream in, String originalName)
+      throws IOException {
+    ProcessInstance pi = runtimeService.createProcessInstanceQuery()
+        .processInstanceId(processInstanceId)
+        .processDefinitionKey(PROCESS_KEY)
+        .active()
+        .singleResult();
+    if (pi == null) return ResponseEntity.notFound().build();
+
+    String filename = StringUtils.cleanPath(originalName == null ? "input.xlsx" : originalName);
+    UploadStore.StoredFile stored = uploadStore.store(in);
+    runtimeService.setVariables(processInstanceId, Map.of(
+        "filePath", stored.path().toString(),
+        "fileHash", stored.hash(),
+        "fileName", filename));
+    return ResponseEntity.ok(Map.of("processInstanceId", processInstanceId,
+                                    "fileHash", stored.hash(),
+                                    "storedFile", stored.path().toString()));
+  }
+
+  /**
+   * Stores the upload under its content hash and starts an instance with the
+   * hash as business key. If an instance for identical content is already
+   * running, that instance is returned instead of starting another; an
+   * instance whose file was replaced is matched by {@code fileHash} until its
+   * next validation moves the business key.
+   */
+  private ResponseEntity<?> start(InputStream in, String originalName) throws IOException {
+    String filename = StringUtils.cleanPath(originalName == null ? "input.xlsx" : originalName);
+    UploadStore.StoredFile stored = uploadStore.store(in);
+
+    ProcessInstance running = runtimeService.createProcessInstanceQuery()
+        .processDefinitionKey(PROCESS_KEY)
+        .processInstanceBusinessKey(stored.hash())
+        .active()
+        .listPage(0, 1)
+        .stream().findFirst()
+        .or(() -> runtimeService.createProcessInstanceQuery()
+            .processDefinitionKey(PROCESS_KEY)
+            .variableValueEquals("fileHash", stored.hash())
+            .active()
+            .listPage(0, 1)
+            .stream().findFirst())
+        .orElse(null);
+    if (running != null) {
+      return ResponseEntity.ok(Map.of("processInstanceId", running.getProcessInstanceId(),
+                                      "fileHash", stored.hash(),
+                                      "storedFile", stored.path().toString(),
+                                      "duplicate", true));
+    }
 
     var vars = Map.<String, Object>of(
-        "filePath", dest.toString()
+        "filePath", stored.path().toString(),
+        "fileHash", stored.hash(),
+        "fileName", filename
     );
 
-    var pi = runtimeService.startProcessInstanceByKey("excelFlow", vars);
+    var pi = runtimeService.startProcessInstanceByKey(PROCESS_KEY, stored.hash(), vars);
     return ResponseEntity.ok(Map.of("processInstanceId", pi.getProcessInstanceId(),
-                                    "tempFile", dest.toString()));
+                                    "fileHash", stored.hash(),
+                                    "storedFile", stored.path().toString(),
+                                    "duplicate", false));
   }
 }
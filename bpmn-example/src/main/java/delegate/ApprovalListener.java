@@ -0,0 +1,26 @@
+package delegate;
+
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completion listener of the "Approve" task. Records who approved in
+ * {@code approvedBy}: the task's assignee, or the engine's authenticated user
+ * if the task was completed unclaimed. If neither is known, a value passed
+ * with the completion is kept.
+ */
+@Component
+public class ApprovalListener implements TaskListener {
+
+  @Override
+  public void notify(DelegateTask task) {
+    String user = task.getAssignee();
+    if (user == null) {
+      Authentication auth = task.getProcessEngineServices().getIdentityService().getCurrentAuthentication();
+      if (auth != null) user = auth.getUserId();
+    }
+    if (user != null) task.getExecution().setVariable("approvedBy", user);
+  }
+}
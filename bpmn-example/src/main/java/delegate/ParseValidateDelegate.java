@@ -3,41 +3,83 @@ package delegate;
 
 import org.camunda.bpm.engine.delegate.DelegateExecution;
 import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import service.ExcelValidationService;
+import service.ExcelValidationService.Issue;
+import service.IssueStore;
+import service.UploadStore;
 
-import java.io.FileInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
+/**
+ * Validates the uploaded workbook. The full issue list goes to the
+ * {@link IssueStore}; the process keeps only {@code hasErrors},
+ * {@code issueCount}, a short {@code issuesPreview} and the {@code issuesRef}
+ * to page through the rest at {@code /api/issues/{issuesRef}}.
+ *
+ * Results are keyed by the file's SHA-256 ({@code fileHash}, set at upload),
+ * so a file already validated under the current ruleset is not parsed again.
+ */
 @Component
 public class ParseValidateDelegate implements JavaDelegate {
 
+  private static final int MAX_PREVIEW_CHARS = 4000;
+
   private final service.ExcelValidationService service;
+  private final IssueStore issueStore;
+  private final int previewSize;
 
-  public ParseValidateDelegate(ExcelValidationService service) {
+  public ParseValidateDelegate(ExcelValidationService service, IssueStore issueStore,
+                               @Value("${excel.validation.preview-size:10}") int previewSize) {
     this.service = service;
+    this.issueStore = issueStore;
+    this.previewSize = previewSize;
   }
 
   @Override
   public void execute(DelegateExecution execution) throws Exception {
     String filePath = (String) execution.getVariable("filePath");
     if (filePath == null || !Files.exists(Path.of(filePath))) {
-      execution.setVariable("hasErrors", true);
-      execution.setVariable("issues", List.of("Uploaded file not found"));
+      List<Issue> issues = List.of(new Issue(0, "-", "Uploaded file not found"));
+      String ref = execution.getProcessInstanceId();
+      issueStore.replace(ref, issues);
+      report(execution, ref, issues.size(), issues);
       return;
     }
 
-    List<ExcelValidationService.Issue> issues;
-    try (FileInputStream fis = new FileInputStream(filePath)) {
-      issues = service.validate(fis);
+    Path file = Path.of(filePath);
+    String hash = (String) execution.getVariable("fileHash");
+    if (hash == null) hash = UploadStore.sha256(file);
+    // Keep the business key on the current content so duplicate uploads of
+    // the fixed file find this instance.
+    if (!hash.equals(execution.getProcessBusinessKey())) execution.setProcessBusinessKey(hash);
+
+    Optional<Integer> cached = issueStore.cachedResult(hash, service.getRuleset());
+    if (cached.isPresent()) {
+      report(execution, hash, cached.get(), issueStore.page(hash, 0, previewSize));
+      return;
     }
 
-    boolean hasErrors = !issues.isEmpty();
-    execution.setVariable("hasErrors", hasErrors);
-    execution.setVariable("issues", issues.stream()
+    List<Issue> issues = service.validate(file);
+    issueStore.saveResult(hash, service.getRuleset(), issues);
+    report(execution, hash, issues.size(), issues);
+  }
+
+  private void report(DelegateExecution execution, String ref, int issueCount, List<Issue> issues) {
+    execution.setVariable("hasErrors", issueCount > 0);
+    execution.setVariable("issueCount", issueCount);
+    execution.setVariable("issuesRef", ref);
+    String preview = issues.stream()
+        .limit(previewSize)
         .map(i -> String.format("Row %d [%s]: %s", i.row, i.column, i.message))
-        .toList());
+        .collect(Collectors.joining("\n"));
+    // Strings up to 4000 chars stay inline in the variable row, no byte array.
+    execution.setVariable("issuesPreview",
+        preview.length() <= MAX_PREVIEW_CHARS ? preview : preview.substring(0, MAX_PREVIEW_CHARS));
   }
 }
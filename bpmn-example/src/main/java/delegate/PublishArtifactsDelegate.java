@@ -0,0 +1,26 @@
+package delegate;
+
+import org.camunda.bpm.engine.delegate.DelegateExecution;
+import org.camunda.bpm.engine.delegate.JavaDelegate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * Final step after approval. Records when and which file content was
+ * published; the stored upload stays addressable by {@code fileHash}.
+ */
+@Component
+public class PublishArtifactsDelegate implements JavaDelegate {
+
+  private static final Logger log = LoggerFactory.getLogger(PublishArtifactsDelegate.class);
+
+  @Override
+  public void execute(DelegateExecution execution) {
+    Object hash = execution.getVariable("fileHash");
+    execution.setVariable("publishedAt", new Date());
+    log.info("Published {} for process instance {}", hash, execution.getProcessInstanceId());
+  }
+}
@@ -0,0 +1,141 @@
+package service;
+
+import jakarta.annotation.PreDestroy;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.task.Task;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Completes many user tasks with few round trips. Ids are split into chunks;
+ * each chunk is looked up with one query and completed in one transaction.
+ * If any completion in a chunk fails, the chunk is rolled back and its tasks
+ * are retried one per transaction, so a single bad task costs only its own
+ * outcome.
+ *
+ * Chunks can run on several threads from a shared, bounded pool. Tasks of
+ * the same process instance should not be split across parallel chunks, or
+ * the engine may report optimistic locking failures for them.
+ */
+@Service
+public class BulkTaskCompletionService {
+
+  public enum Status { COMPLETED, NOT_FOUND, FAILED }
+
+  public record TaskOutcome(String taskId, Status status, String message) {}
+
+  public record Result(int requested, int completed, int notFound, int failed,
+                       long elapsedMs, double tasksPerSecond, List<TaskOutcome> outcomes) {}
+
+  private final TaskService taskService;
+  private final TransactionTemplate tx;
+  private final int defaultChunkSize;
+  private final int maxParallelism;
+  private final ExecutorService pool;
+
+  public BulkTaskCompletionService(TaskService taskService, PlatformTransactionManager transactionManager,
+                                   @Value("${tasks.bulk.chunk-size:50}") int defaultChunkSize,
+                                   @Value("${tasks.bulk.max-parallelism:4}") int maxParallelism) {
+    if (defaultChunkSize < 1) throw new IllegalArgumentException("tasks.bulk.chunk-size must be >= 1");
+    if (maxParallelism < 1) throw new IllegalArgumentException("tasks.bulk.max-parallelism must be >= 1");
+    this.taskService = taskService;
+    this.tx = new TransactionTemplate(transactionManager);
+    this.defaultChunkSize = defaultChunkSize;
+    this.maxParallelism = maxParallelism;
+    AtomicInteger threads = new AtomicInteger();
+    this.pool = Executors.newFixedThreadPool(maxParallelism,
+        r -> new Thread(r, "bulk-complete-" + threads.incrementAndGet()));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * @param chunkSize tasks per transaction, or {@code null} for the default
+   * @param parallelism chunks in flight at once, capped at {@code tasks.bulk.max-parallelism}
+   */
+  public Result complete(List<String> taskIds, Map<String, Object> variables, Integer chunkSize,
+                         Integer parallelism) throws Exception {
+    long start = System.nanoTime();
+    List<String> ids = taskIds.stream().distinct().toList();
+    int size = chunkSize == null || chunkSize < 1 ? defaultChunkSize : chunkSize;
+    List<List<String>> chunks = new ArrayList<>();
+    for (int i = 0; i < ids.size(); i += size) {
+      chunks.add(ids.subList(i, Math.min(i + size, ids.size())));
+    }
+
+    List<List<TaskOutcome>> results = new ArrayList<>(chunks.size());
+    for (int i = 0; i < chunks.size(); i++) results.add(null);
+    int workers = Math.max(1, Math.min(parallelism == null ? 1 : parallelism, Math.min(maxParallelism, chunks.size())));
+    if (workers == 1) {
+      for (int i = 0; i < chunks.size(); i++) results.set(i, completeChunk(chunks.get(i), variables));
+    } else {
+      // Workers pull the next chunk index, so results stay in request order.
+      AtomicInteger next = new AtomicInteger();
+      List<Future<?>> running = new ArrayList<>(workers);
+      for (int w = 0; w < workers; w++) {
+        running.add(pool.submit(() -> {
+          for (int i = next.getAndIncrement(); i < chunks.size(); i = next.getAndIncrement()) {
+            results.set(i, completeChunk(chunks.get(i), variables));
+          }
+        }));
+      }
+      for (Future<?> f : running) f.get();
+    }
+
+    List<TaskOutcome> outcomes = results.stream().flatMap(List::stream).toList();
+    long elapsedNanos = System.nanoTime() - start;
+    Map<Status, Long> counts = outcomes.stream()
+        .collect(Collectors.groupingBy(TaskOutcome::status, Collectors.counting()));
+    int completed = counts.getOrDefault(Status.COMPLETED, 0L).intValue();
+    return new Result(ids.size(), completed,
+        counts.getOrDefault(Status.NOT_FOUND, 0L).intValue(),
+        counts.getOrDefault(Status.FAILED, 0L).intValue(),
+        elapsedNanos / 1_000_000,
+        elapsedNanos == 0 ? 0 : completed * 1e9 / elapsedNanos,
+        outcomes);
+  }
+
+  private List<TaskOutcome> completeChunk(List<String> ids, Map<String, Object> variables) {
+    try {
+      return tx.execute(status -> {
+        Set<String> open = taskService.createTaskQuery()
+            .taskIdIn(ids.toArray(String[]::new))
+            .list().stream()
+            .map(Task::getId)
+            .collect(Collectors.toSet());
+        List<TaskOutcome> out = new ArrayList<>(ids.size());
+        for (String id : ids) {
+          if (!open.contains(id)) {
+            out.add(new TaskOutcome(id, Status.NOT_FOUND, null));
+            continue;
+          }
+          taskService.complete(id, variables);
+          out.add(new TaskOutcome(id, Status.COMPLETED, null));
+        }
+        return out;
+      });
+    } catch (RuntimeException e) {
+      if (ids.size() == 1) {
+        return List.of(new TaskOutcome(ids.get(0), Status.FAILED, String.valueOf(e.getMessage())));
+      }
+      List<TaskOutcome> out = new ArrayList<>(ids.size());
+      for (String id : ids) out.addAll(completeChunk(List.of(id), variables));
+      return out;
+    }
+  }
+}
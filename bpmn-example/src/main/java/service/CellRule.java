@@ -0,0 +1,13 @@
+package service;
+
+/**
+ * A single check on one cell. Implementations must be stateless: one compiled
+ * {@link RowRules} is shared by every worker validating a sheet.
+ */
+public interface CellRule {
+
+  boolean accepts(SheetRow row, int col);
+
+  /** Message suffix after the column name, e.g. {@code "required"}. */
+  String failure();
+}
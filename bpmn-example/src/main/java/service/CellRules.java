@@ -0,0 +1,62 @@
+package service;
+
+import java.util.Currency;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/** Factories for the built-in {@link CellRule}s. */
+public final class CellRules {
+
+  private static final Set<String> ISO_CURRENCIES = Currency.getAvailableCurrencies().stream()
+      .map(Currency::getCurrencyCode)
+      .collect(Collectors.toUnmodifiableSet());
+
+  private CellRules() {
+  }
+
+  public static CellRule of(String failure, BiPredicate<SheetRow, Integer> accepts) {
+    return new CellRule() {
+      @Override
+      public boolean accepts(SheetRow row, int col) {
+        return accepts.test(row, col);
+      }
+
+      @Override
+      public String failure() {
+        return failure;
+      }
+    };
+  }
+
+  public static CellRule required() {
+    return of("required", (row, col) -> {
+      String v = row.getString(col);
+      return v != null && !v.isBlank();
+    });
+  }
+
+  public static CellRule positiveNumber() {
+    return of("must be > 0", (row, col) -> {
+      Double v = row.getNumeric(col);
+      return v != null && v > 0;
+    });
+  }
+
+  /** Accepts blank cells; combine with {@link #required()} to reject them. */
+  public static CellRule isoCurrency() {
+    return of("must be an ISO 4217 currency code", (row, col) -> {
+      String v = row.getString(col);
+      return v == null || v.isBlank() || ISO_CURRENCIES.contains(v.trim());
+    });
+  }
+
+  /** Accepts blank cells; the whole trimmed value must match. */
+  public static CellRule matches(Pattern pattern) {
+    return of("must match " + pattern.pattern(), (row, col) -> {
+      String v = row.getString(col);
+      return v == null || v.isBlank() || pattern.matcher(v.trim()).matches();
+    });
+  }
+}
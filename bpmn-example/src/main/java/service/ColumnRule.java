@@ -0,0 +1,15 @@
+package service;
+
+import java.util.List;
+
+/**
+ * The rules for one header-addressed column, checked in order. The first
+ * failing rule produces the issue for that cell, so later rules can assume
+ * the earlier ones passed (a pattern rule never sees a blank value).
+ */
+public record ColumnRule(String header, List<CellRule> rules) {
+
+  public static ColumnRule column(String header, CellRule... rules) {
+    return new ColumnRule(header, List.of(rules));
+  }
+}
@@ -1,12 +1,35 @@
 package service;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.annotation.PreDestroy;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Pattern;
+
+import static service.ColumnRule.column;
 
 @Service
 public class ExcelValidationService {
@@ -22,82 +45,284 @@ public class ExcelValidationService {
     }
   }
 
+  static final String SHEET_NAME = "Resources";
+  static final String DEFAULT_PROJECT_CODE_PATTERN = "[A-Za-z0-9][A-Za-z0-9_.-]*";
+  static final int DEFAULT_CHUNK_SIZE = 2000;
+  static final String DEFAULT_ROW_CACHE_SPEC = "maximumSize=1000000,expireAfterAccess=2h";
+
+  private final List<ColumnRule> columns;
+  private final int maxIssues;
+  private final int chunkSize;
+  private final int maxInFlight;
+  private final ForkJoinPool pool;
+  private final String ruleset;
+  private final Cache<UnchangedRowFilter.RowDigest, List<Issue>> rowCache;
+
+  /** Default rules with the given issue limit, one worker per core. */
+  public ExcelValidationService(int maxIssues) {
+    this(resourceRules(Pattern.compile(DEFAULT_PROJECT_CODE_PATTERN)), maxIssues, 0, DEFAULT_CHUNK_SIZE,
+        DEFAULT_ROW_CACHE_SPEC);
+  }
+
+  @Autowired
+  public ExcelValidationService(
+      @Value("${excel.validation.max-issues:1000}") int maxIssues,
+      @Value("${excel.validation.parallelism:0}") int parallelism,
+      @Value("${excel.validation.chunk-size:2000}") int chunkSize,
+      @Value("${excel.validation.project-code-pattern:" + DEFAULT_PROJECT_CODE_PATTERN + "}") String projectCodePattern,
+      @Value("${excel.validation.row-cache:" + DEFAULT_ROW_CACHE_SPEC + "}") String rowCacheSpec) {
+    this(resourceRules(Pattern.compile(projectCodePattern)), maxIssues, parallelism, chunkSize, rowCacheSpec);
+  }
+
+  /**
+   * @param parallelism worker threads for row validation; 0 means one per core
+   * @param rowCacheSpec Caffeine spec for the per-row result cache; blank disables it
+   */
+  public ExcelValidationService(List<ColumnRule> columns, int maxIssues, int parallelism, int chunkSize,
+                                String rowCacheSpec) {
+    if (maxIssues < 1) throw new IllegalArgumentException("excel.validation.max-issues must be >= 1");
+    if (chunkSize < 1) throw new IllegalArgumentException("excel.validation.chunk-size must be >= 1");
+    int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.columns = List.copyOf(columns);
+    this.maxIssues = maxIssues;
+    this.chunkSize = chunkSize;
+    this.maxInFlight = workers * 2;
+    this.pool = new ForkJoinPool(workers);
+    this.ruleset = fingerprint(this.columns, maxIssues);
+    this.rowCache = rowCacheSpec == null || rowCacheSpec.isBlank()
+        ? null
+        : Caffeine.from(rowCacheSpec).build();
+  }
+
   /**
-   * Basic demo rules:
-   * - Expect a sheet named "Resources"
-   * - Expect headers: ProjectCode, ResourceName, RateCurrency, Rate
-   * - Rate must be > 0
+   * The rules for the Resources sheet, in the order issues are reported within
+   * a row. Add a column or a rule here; the validation loop does not change.
+   */
+  public static List<ColumnRule> resourceRules(Pattern projectCode) {
+    return List.of(
+        column("ProjectCode", CellRules.required(), CellRules.matches(projectCode)),
+        column("ResourceName", CellRules.required()),
+        column("RateCurrency", CellRules.required(), CellRules.isoCurrency()),
+        column("Rate", CellRules.positiveNumber()));
+  }
+
+  public int getMaxIssues() {
+    return maxIssues;
+  }
+
+  /**
+   * Identifies the rule configuration. Cached results are only reused when
+   * they were produced under the same ruleset.
+   */
+  public String getRuleset() {
+    return ruleset;
+  }
+
+  /** Row cache statistics, or {@link CacheStats#empty()} when the cache is off. */
+  public CacheStats getRowCacheStats() {
+    return rowCache == null ? CacheStats.empty() : rowCache.stats();
+  }
+
+  private static String fingerprint(List<ColumnRule> columns, int maxIssues) {
+    StringBuilder sb = new StringBuilder().append(maxIssues);
+    for (ColumnRule column : columns) {
+      sb.append('|').append(column.header());
+      for (CellRule rule : column.rules()) sb.append(';').append(rule.failure());
+    }
+    return UploadStore.sha256(sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdown();
+  }
+
+  /**
+   * Spools the stream to a temp file and validates that. The OOXML package
+   * needs random access to the zip; opening it from a stream would inflate
+   * every part into memory.
    */
   public List<Issue> validate(InputStream in) throws Exception {
+    Path tmp = Files.createTempFile("excel-validate-", ".xlsx");
+    try {
+      Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+      return validate(tmp);
+    } finally {
+      Files.deleteIfExists(tmp);
+    }
+  }
+
+  /**
+   * Validates the "Resources" sheet against {@link #resourceRules}; the
+   * header row must name every rule column.
+   *
+   * The sheet is read with the SAX event API one row at a time, so heap use
+   * does not grow with the row count. Only the shared-strings table is held
+   * in memory. Parsed rows are copied into chunks and checked on a fork-join
+   * pool while parsing continues; at most two chunks per worker are in flight
+   * at once. Chunk results are merged in submission order, so issues come out
+   * in row order as if validated on one thread. Validation stops once
+   * {@code excel.validation.max-issues} issues have been found, and a final
+   * issue records the cut-off.
+   *
+   * With the row cache on, the sheet XML passes through an
+   * {@link UnchangedRowFilter} first. Rows whose exact content was validated
+   * before, at the same position and under the same ruleset and header, never
+   * reach the parser; their issues come from the cache and are merged back in
+   * row order. A file that returns from the fix task therefore only pays SAX
+   * decoding and the rules for the rows that were edited.
+   */
+  public List<Issue> validate(Path file) throws Exception {
     List<Issue> issues = new ArrayList<>();
-    try (Workbook wb = new XSSFWorkbook(in)) {
-      Sheet sheet = wb.getSheet("Resources");
-      if (sheet == null) {
-        issues.add(new Issue(0, "-", "Sheet 'Resources' not found"));
-        return issues;
+    try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+      XSSFReader reader = new XSSFReader(pkg);
+      XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+      while (sheets.hasNext()) {
+        try (InputStream sheet = sheets.next()) {
+          // Same lookup as Workbook.getSheet: first match, case-insensitive.
+          if (SHEET_NAME.equalsIgnoreCase(sheets.getSheetName())) {
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+            validateSheet(sheet, strings, issues);
+            return issues;
+          }
+        }
       }
+    }
+    issues.add(new Issue(0, "-", "Sheet '" + SHEET_NAME + "' not found"));
+    return issues;
+  }
+
+  private void validateSheet(InputStream sheet, ReadOnlySharedStringsTable strings, List<Issue> issues)
+      throws Exception {
+    UnchangedRowFilter filter = rowCache == null ? null : new UnchangedRowFilter(sheet, strings, rowCache, ruleset);
+    ChunkedRowValidator validator = new ChunkedRowValidator(issues, filter);
+    XMLReader parser = XMLHelper.newXMLReader();
+    parser.setContentHandler(new StreamingSheetHandler(strings, validator));
+    try {
+      parser.parse(new InputSource(filter == null ? sheet : filter));
+      validator.finish();
+    } catch (StopValidation stop) {
+      // Header problems or the issue limit; the issues say which.
+    } finally {
+      validator.cancel();
+    }
+    if (!validator.sawHeader && issues.isEmpty()) {
+      issues.add(new Issue(0, "-", "Header row missing"));
+    }
+  }
+
+  /** Issues of one chunk, with the rows it covered so their results can be cached. */
+  private record ChunkResult(int[] rows, List<Issue> issues) {}
+
+  private static ChunkResult validateChunk(RowRules rules, List<SheetRow> rows) {
+    int[] indexes = new int[rows.size()];
+    List<Issue> out = new ArrayList<>();
+    for (int i = 0; i < indexes.length; i++) {
+      SheetRow row = rows.get(i);
+      indexes[i] = row.index();
+      rules.emit(row, rules.evaluate(row), out);
+    }
+    return new ChunkResult(indexes, out);
+  }
+
+  /** Thrown from the row callback to abandon the rest of the sheet. */
+  private static final class StopValidation extends SAXException {
+    StopValidation() {
+      super(null, null);
+    }
+  }
+
+  private final class ChunkedRowValidator implements StreamingSheetHandler.RowListener {
+    private final List<Issue> issues;
+    private final UnchangedRowFilter filter;
+    private final Deque<ForkJoinTask<ChunkResult>> inFlight = new ArrayDeque<>();
+    private List<SheetRow> chunk = new ArrayList<>(chunkSize);
+    private RowRules rules;
+    private boolean sawHeader;
+
+    ChunkedRowValidator(List<Issue> issues, UnchangedRowFilter filter) {
+      this.issues = issues;
+      this.filter = filter;
+    }
+
+    @Override
+    public void onRow(SheetRow row) throws SAXException {
+      if (!sawHeader) {
+        readHeader(row);
+        return;
+      }
+      chunk.add(row.copy());
+      if (chunk.size() == chunkSize) submit();
+    }
 
-      Row header = sheet.getRow(0);
-      if (header == null) {
+    void finish() throws SAXException {
+      if (!chunk.isEmpty()) submit();
+      while (!inFlight.isEmpty()) drainOldest();
+      if (filter != null) {
+        while (!filter.cachedIssues().isEmpty()) add(filter.cachedIssues().removeFirst());
+      }
+    }
+
+    void cancel() {
+      inFlight.forEach(task -> task.cancel(false));
+      inFlight.clear();
+    }
+
+    private void readHeader(SheetRow header) throws SAXException {
+      if (header.index() != 0) {
         issues.add(new Issue(0, "-", "Header row missing"));
-        return issues;
+        throw new StopValidation();
       }
+      sawHeader = true;
+      rules = RowRules.compile(columns, header, issues);
+      if (rules == null) throw new StopValidation();
+    }
+
+    private void submit() throws SAXException {
+      RowRules bound = rules;
+      List<SheetRow> rows = chunk;
+      chunk = new ArrayList<>(chunkSize);
+      inFlight.addLast(pool.submit(() -> validateChunk(bound, rows)));
+      while (inFlight.size() > maxInFlight) drainOldest();
+    }
 
-      int colProject = findCol(header, "ProjectCode");
-      int colName    = findCol(header, "ResourceName");
-      int colCcy     = findCol(header, "RateCurrency");
-      int colRate    = findCol(header, "Rate");
-      if (colProject < 0) issues.add(new Issue(0, "ProjectCode", "Missing header"));
-      if (colName < 0)    issues.add(new Issue(0, "ResourceName", "Missing header"));
-      if (colCcy < 0)     issues.add(new Issue(0, "RateCurrency", "Missing header"));
-      if (colRate < 0)    issues.add(new Issue(0, "Rate", "Missing header"));
-
-      if (!issues.isEmpty()) return issues;
-
-      for (int r = 1; r <= sheet.getLastRowNum(); r++) {
-        Row row = sheet.getRow(r);
-        if (row == null) continue;
-
-        String project = getString(row.getCell(colProject));
-        String name    = getString(row.getCell(colName));
-        String ccy     = getString(row.getCell(colCcy));
-        Double rate    = getNumeric(row.getCell(colRate));
-
-        if (project == null || project.isBlank())
-          issues.add(new Issue(r, "ProjectCode", "ProjectCode required"));
-        if (name == null || name.isBlank())
-          issues.add(new Issue(r, "ResourceName", "ResourceName required"));
-        if (ccy == null || ccy.isBlank())
-          issues.add(new Issue(r, "RateCurrency", "RateCurrency required"));
-        if (rate == null || rate <= 0)
-          issues.add(new Issue(r, "Rate", "Rate must be > 0"));
+    private void drainOldest() throws SAXException {
+      ChunkResult result = inFlight.removeFirst().join();
+      if (filter != null) cache(result);
+      for (Issue issue : result.issues()) {
+        if (filter != null) {
+          // Cached rows were scanned ahead of the parser; slot in those above this one.
+          Deque<Issue> cached = filter.cachedIssues();
+          while (!cached.isEmpty() && cached.peekFirst().row < issue.row) add(cached.removeFirst());
+        }
+        add(issue);
       }
     }
-    return issues;
-  }
 
-  private int findCol(Row header, String name) {
-    for (int i = 0; i < header.getLastCellNum(); i++) {
-      Cell c = header.getCell(i);
-      if (c != null && name.equalsIgnoreCase(c.getStringCellValue())) return i;
+    /** Caches every row of the chunk, with or without issues, before any cut-off. */
+    private void cache(ChunkResult result) {
+      List<Issue> chunkIssues = result.issues();
+      int next = 0;
+      for (int row : result.rows()) {
+        int from = next;
+        while (next < chunkIssues.size() && chunkIssues.get(next).row == row) next++;
+        filter.store(row, chunkIssues.subList(from, next));
+      }
     }
-    return -1;
-  }
 
-  private String getString(Cell c) {
-    if (c == null) return null;
-    if (c.getCellType() == CellType.STRING) return c.getStringCellValue();
-    if (c.getCellType() == CellType.NUMERIC) return String.valueOf(c.getNumericCellValue());
-    if (c.getCellType() == CellType.BOOLEAN) return String.valueOf(c.getBooleanCellValue());
-    return null;
+    private void add(Issue issue) throws SAXException {
+      issues.add(issue);
+      if (issues.size() >= maxIssues) {
+        issues.add(new Issue(issue.row, "-", "Stopped after " + maxIssues + " issues"));
+        throw new StopValidation();
+      }
+    }
   }
 
-  private Double getNumeric(Cell c) {
-    if (c == null) return null;
-    if (c.getCellType() == CellType.NUMERIC) return c.getNumericCellValue();
-    if (c.getCellType() == CellType.STRING) {
-      try { return Double.parseDouble(c.getStringCellValue()); } catch (Exception ignored) {}
+  static int findCol(SheetRow header, String name) {
+    for (int i = 0; i < header.width(); i++) {
+      if (header.isString(i) && name.equalsIgnoreCase(header.getString(i))) return i;
     }
-    return null;
+    return -1;
   }
 }
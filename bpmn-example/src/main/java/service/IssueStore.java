@@ -0,0 +1,114 @@
+package service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import service.ExcelValidationService.Issue;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Validation issues in the {@code excel_issue} table, one row per issue.
+ * Process instances keep only a reference into this store, so a large issue
+ * list is written once per validation instead of being serialized into
+ * runtime and history variables on every engine flush.
+ *
+ * Issues are keyed by the file's content hash, and
+ * {@code excel_validation_result} records which ruleset produced them. A
+ * second upload of the same file under the same rules reuses the stored
+ * result without parsing the workbook again.
+ *
+ * Writes join the caller's transaction; when called from a delegate they
+ * commit or roll back together with the engine state. Old results are
+ * removed by {@link UploadCleanupJob}.
+ */
+@Repository
+public class IssueStore {
+
+  private static final int BATCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbc;
+
+  public IssueStore(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  /** Replaces every stored issue for {@code ref}; an empty list just clears it. */
+  @Transactional
+  public void replace(String ref, List<Issue> issues) {
+    jdbc.update("delete from excel_issue where ref = ?", ref);
+    if (issues.isEmpty()) return;
+    int[] seq = {0};
+    jdbc.batchUpdate(
+        "insert into excel_issue (ref, seq, row_num, col, message) values (?, ?, ?, ?, ?)",
+        issues, BATCH_SIZE, (ps, issue) -> {
+          ps.setString(1, ref);
+          ps.setInt(2, seq[0]++);
+          ps.setInt(3, issue.row);
+          ps.setString(4, truncate(issue.column, 64));
+          ps.setString(5, truncate(issue.message, 512));
+        });
+  }
+
+  /**
+   * Stores {@code issues} as the result of validating the file with content
+   * hash {@code ref} under {@code ruleset}.
+   */
+  @Transactional
+  public void saveResult(String ref, String ruleset, List<Issue> issues) {
+    replace(ref, issues);
+    jdbc.update("delete from excel_validation_result where file_hash = ?", ref);
+    jdbc.update("insert into excel_validation_result (file_hash, ruleset, issue_count, validated_at) values (?, ?, ?, ?)",
+        ref, ruleset, issues.size(), Timestamp.from(Instant.now()));
+  }
+
+  /** Issue count of a stored result for this file and ruleset, if there is one. */
+  @Transactional(readOnly = true)
+  public Optional<Integer> cachedResult(String ref, String ruleset) {
+    return jdbc.query("select issue_count from excel_validation_result where file_hash = ? and ruleset = ?",
+        (rs, i) -> rs.getInt(1), ref, ruleset).stream().findFirst();
+  }
+
+  /** Content hashes whose stored result was produced before {@code cutoff}. */
+  @Transactional(readOnly = true)
+  public List<String> resultsBefore(Instant cutoff) {
+    return jdbc.queryForList("select file_hash from excel_validation_result where validated_at < ?",
+        String.class, Timestamp.from(cutoff));
+  }
+
+  /** Refs with issues but no stored result: process instance ids of runs whose file was missing. */
+  @Transactional(readOnly = true)
+  public List<String> instanceRefs() {
+    return jdbc.queryForList("select distinct ref from excel_issue i where not exists "
+        + "(select 1 from excel_validation_result r where r.file_hash = i.ref)", String.class);
+  }
+
+  /** Removes the issues and the stored result for {@code ref}. */
+  @Transactional
+  public void delete(String ref) {
+    jdbc.update("delete from excel_issue where ref = ?", ref);
+    jdbc.update("delete from excel_validation_result where file_hash = ?", ref);
+  }
+
+  @Transactional(readOnly = true)
+  public int count(String ref) {
+    Integer n = jdbc.queryForObject("select count(*) from excel_issue where ref = ?", Integer.class, ref);
+    return n == null ? 0 : n;
+  }
+
+  /** Issues {@code offset .. offset+limit-1} in report order, read by primary-key range. */
+  @Transactional(readOnly = true)
+  public List<Issue> page(String ref, int offset, int limit) {
+    return jdbc.query(
+        "select row_num, col, message from excel_issue where ref = ? and seq >= ? and seq < ? order by seq",
+        (rs, i) -> new Issue(rs.getInt(1), rs.getString(2), rs.getString(3)),
+        ref, offset, offset + limit);
+  }
+
+  private static String truncate(String s, int max) {
+    return s.length() <= max ? s : s.substring(0, max);
+  }
+}
@@ -0,0 +1,84 @@
+package service;
+
+import service.ExcelValidationService.Issue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link ColumnRule}s bound to column indexes from a header row. Immutable,
+ * so one instance validates every chunk of a sheet concurrently.
+ */
+final class RowRules {
+
+  private static final int[] NO_FAILURES = new int[0];
+
+  private final String[] headers;
+  private final int[] cols;
+  private final CellRule[][] rules;
+  private final String[][] messages;
+
+  private RowRules(String[] headers, int[] cols, CellRule[][] rules, String[][] messages) {
+    this.headers = headers;
+    this.cols = cols;
+    this.rules = rules;
+    this.messages = messages;
+  }
+
+  /**
+   * Resolves each column through {@link ExcelValidationService#findCol}. Adds a
+   * "Missing header" issue per unresolved column and returns {@code null} if
+   * there was any.
+   */
+  static RowRules compile(List<ColumnRule> columns, SheetRow header, List<Issue> issues) {
+    int n = columns.size();
+    String[] headers = new String[n];
+    int[] cols = new int[n];
+    CellRule[][] rules = new CellRule[n][];
+    String[][] messages = new String[n][];
+    boolean missing = false;
+    for (int i = 0; i < n; i++) {
+      ColumnRule column = columns.get(i);
+      headers[i] = column.header();
+      cols[i] = ExcelValidationService.findCol(header, column.header());
+      if (cols[i] < 0) {
+        issues.add(new Issue(0, column.header(), "Missing header"));
+        missing = true;
+      }
+      rules[i] = column.rules().toArray(CellRule[]::new);
+      messages[i] = new String[rules[i].length];
+      for (int j = 0; j < rules[i].length; j++) {
+        messages[i][j] = column.header() + " " + rules[i][j].failure();
+      }
+    }
+    if (missing) return null;
+    return new RowRules(headers, cols, rules, messages);
+  }
+
+  /**
+   * Runs the rules against one row. Each failure is packed as
+   * {@code column << 16 | rule}, in report order.
+   */
+  int[] evaluate(SheetRow row) {
+    int[] failures = NO_FAILURES;
+    int n = 0;
+    for (int i = 0; i < cols.length; i++) {
+      CellRule[] columnRules = rules[i];
+      for (int j = 0; j < columnRules.length; j++) {
+        if (!columnRules[j].accepts(row, cols[i])) {
+          if (n == failures.length) failures = Arrays.copyOf(failures, cols.length);
+          failures[n++] = i << 16 | j;
+          break;
+        }
+      }
+    }
+    return n == failures.length ? failures : Arrays.copyOf(failures, n);
+  }
+
+  void emit(SheetRow row, int[] failures, List<Issue> out) {
+    for (int failure : failures) {
+      int i = failure >>> 16;
+      out.add(new Issue(row.index(), headers[i], messages[i][failure & 0xFFFF]));
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * One worksheet row as read by {@link StreamingSheetHandler}. The instance is
+ * reused for every row of the sheet, so callers must not keep a reference to
+ * it after the callback returns.
+ *
+ * Accessors mirror what the old DOM code did with {@code Cell}: numbers are
+ * rendered with {@link String#valueOf(double)}, and formula, error and blank
+ * cells count as empty.
+ */
+public final class SheetRow {
+
+  enum Kind { STRING, NUMERIC, BOOLEAN, OTHER }
+
+  private int index;
+  private int width;
+  private Kind[] kinds = new Kind[16];
+  private String[] values = new String[16];
+
+  /** Zero-based row index, as in {@code Row.getRowNum()}. */
+  public int index() {
+    return index;
+  }
+
+  /** One past the highest populated column, as in {@code Row.getLastCellNum()}. */
+  public int width() {
+    return width;
+  }
+
+  public boolean isString(int col) {
+    return kind(col) == Kind.STRING;
+  }
+
+  public String getString(int col) {
+    Kind kind = kind(col);
+    if (kind == null) return null;
+    return switch (kind) {
+      case STRING -> values[col];
+      case NUMERIC -> String.valueOf(Double.parseDouble(values[col]));
+      case BOOLEAN -> String.valueOf("1".equals(values[col]));
+      case OTHER -> null;
+    };
+  }
+
+  public Double getNumeric(int col) {
+    Kind kind = kind(col);
+    if (kind == Kind.NUMERIC) return Double.parseDouble(values[col]);
+    if (kind == Kind.STRING) {
+      try { return Double.parseDouble(values[col]); } catch (Exception ignored) {}
+    }
+    return null;
+  }
+
+  private Kind kind(int col) {
+    return col >= 0 && col < width ? kinds[col] : null;
+  }
+
+  /** A detached copy that is safe to hand to another thread. */
+  SheetRow copy() {
+    SheetRow copy = new SheetRow();
+    copy.index = index;
+    copy.width = width;
+    copy.kinds = Arrays.copyOf(kinds, width);
+    copy.values = Arrays.copyOf(values, width);
+    return copy;
+  }
+
+  void reset(int index) {
+    Arrays.fill(kinds, 0, width, null);
+    Arrays.fill(values, 0, width, null);
+    this.index = index;
+    this.width = 0;
+  }
+
+  void set(int col, Kind kind, String value) {
+    if (col >= kinds.length) {
+      int size = Math.max(col + 1, kinds.length * 2);
+      kinds = Arrays.copyOf(kinds, size);
+      values = Arrays.copyOf(values, size);
+    }
+    kinds[col] = kind;
+    values[col] = value;
+    width = Math.max(width, col + 1);
+  }
+}
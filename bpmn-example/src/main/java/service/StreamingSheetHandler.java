@@ -0,0 +1,123 @@
+package service;
+
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler for a single worksheet part. Each {@code <row>} is decoded into a
+ * reused {@link SheetRow} and handed to the listener; nothing is kept once the
+ * row is processed, so memory stays flat however long the sheet is.
+ *
+ * Cell types are resolved the same way {@code XSSFCell.getCellType()} does:
+ * a cell with a formula is a formula cell whatever its cached value, and a
+ * numeric cell without a value is blank.
+ */
+final class StreamingSheetHandler extends DefaultHandler {
+
+  @FunctionalInterface
+  interface RowListener {
+    void onRow(SheetRow row) throws SAXException;
+  }
+
+  private final SharedStrings sharedStrings;
+  private final RowListener listener;
+  private final SheetRow row = new SheetRow();
+  private final StringBuilder text = new StringBuilder(64);
+
+  private int nextRow;
+  private int nextCol;
+  private int col;
+  private String type;
+  private boolean inRow;
+  private boolean hasFormula;
+  private boolean hasValue;
+  private boolean collecting;
+  private int phoneticDepth;
+
+  StreamingSheetHandler(SharedStrings sharedStrings, RowListener listener) {
+    this.sharedStrings = sharedStrings;
+    this.listener = listener;
+  }
+
+  @Override
+  public void startElement(String uri, String localName, String qName, Attributes attrs) {
+    switch (localName) {
+      case "row" -> {
+        String r = attrs.getValue("r");
+        int index = r != null ? Integer.parseInt(r) - 1 : nextRow;
+        row.reset(index);
+        nextRow = index + 1;
+        nextCol = 0;
+        inRow = true;
+      }
+      case "c" -> {
+        String ref = attrs.getValue("r");
+        col = ref != null ? new CellReference(ref).getCol() : nextCol;
+        nextCol = col + 1;
+        type = attrs.getValue("t");
+        hasFormula = false;
+        hasValue = false;
+        text.setLength(0);
+      }
+      case "f" -> hasFormula = true;
+      case "v" -> {
+        hasValue = true;
+        collecting = true;
+      }
+      case "rPh" -> phoneticDepth++;
+      case "t" -> {
+        if (phoneticDepth == 0) {
+          hasValue = true;
+          collecting = true;
+        }
+      }
+      default -> { }
+    }
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qName) throws SAXException {
+    switch (localName) {
+      case "v", "t" -> collecting = false;
+      case "rPh" -> phoneticDepth--;
+      case "c" -> {
+        if (inRow) storeCell();
+      }
+      case "row" -> {
+        inRow = false;
+        listener.onRow(row);
+      }
+      default -> { }
+    }
+  }
+
+  @Override
+  public void characters(char[] ch, int start, int length) {
+    if (collecting) text.append(ch, start, length);
+  }
+
+  private void storeCell() {
+    if (hasFormula) {
+      row.set(col, SheetRow.Kind.OTHER, null);
+      return;
+    }
+    if (type == null || "n".equals(type)) {
+      row.set(col, hasValue ? SheetRow.Kind.NUMERIC : SheetRow.Kind.OTHER, hasValue ? text.toString() : null);
+      return;
+    }
+    switch (type) {
+      case "s" -> {
+        String value = hasValue
+            ? sharedStrings.getItemAt(Integer.parseInt(text.toString().trim())).getString()
+            : null;
+        row.set(col, value != null ? SheetRow.Kind.STRING : SheetRow.Kind.OTHER, value);
+      }
+      case "inlineStr", "str" -> row.set(col, SheetRow.Kind.STRING, text.toString());
+      case "b" -> row.set(col, SheetRow.Kind.BOOLEAN, text.toString());
+      default -> row.set(col, SheetRow.Kind.OTHER, null);
+    }
+  }
+}
@@ -0,0 +1,418 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.apache.poi.xssf.model.SharedStrings;
+import service.ExcelValidationService.Issue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sits between the inflated worksheet part and the SAX parser, and drops
+ * every {@code <row>} element whose validation result is already cached.
+ * Only new or edited rows reach the parser; the issues of the dropped rows
+ * come from the cache.
+ *
+ * Rows are found with a byte scan, far cheaper than SAX decoding. A row is
+ * identified by a SHA-256 over its index and XML bytes, in a namespace made
+ * from the ruleset and the header row, so a cached result is only reused at
+ * the same position and under the same column mapping. Shared-string
+ * indexes are replaced by the strings they point to before hashing, because
+ * Excel may renumber the shared-strings table on every save.
+ *
+ * The header row (index 0) is always passed through. If the first row is not
+ * the header nothing is skipped, and the parser reports the problem as usual.
+ * A row without an {@code r} attribute gets one injected, so the handler
+ * still numbers rows correctly when rows before it were dropped. Start tags
+ * are tokenized as XML allows (either quote, whitespace around {@code =}).
+ * If a row tag cannot be read, or a row holds a comment, CDATA section or
+ * processing instruction, that row is passed through unchanged and nothing
+ * further is skipped.
+ */
+final class UnchangedRowFilter extends InputStream {
+
+  /** First 128 bits of a row's SHA-256. */
+  record RowDigest(long high, long low) {}
+
+  private static final byte[] ROW_OPEN = "<row".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] ROW_CLOSE = "</row".getBytes(StandardCharsets.US_ASCII);
+
+  /** {@link #attribute} results other than a value position. */
+  private static final int ABSENT = -1;
+  private static final int MALFORMED = -2;
+
+  private final InputStream in;
+  private final SharedStrings strings;
+  private final Cache<RowDigest, List<Issue>> cache;
+  private final String ruleset;
+  private final MessageDigest sha;
+  private final Deque<Issue> cachedIssues = new ArrayDeque<>();
+  private final Map<Integer, RowDigest> pending = new HashMap<>();
+  private byte[][] resolved = new byte[1024][];
+  private final byte[] scratch = new byte[5];
+
+  private byte[] buf = new byte[64 * 1024];
+  private int pos;
+  private int limit;
+  private boolean eof;
+
+  private byte[] segment;
+  private int segmentPos;
+  private int segmentEnd;
+
+  private byte[] namespace;
+  private boolean skipping = true;
+  private int lastRow = -1;
+  private int skippedRows;
+
+  UnchangedRowFilter(InputStream in, SharedStrings strings, Cache<RowDigest, List<Issue>> cache, String ruleset) {
+    this.in = in;
+    this.strings = strings;
+    this.cache = cache;
+    this.ruleset = ruleset;
+    try {
+      this.sha = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Issues of dropped rows, in row order; consumed by the validator as it merges. */
+  Deque<Issue> cachedIssues() {
+    return cachedIssues;
+  }
+
+  int skippedRows() {
+    return skippedRows;
+  }
+
+  /** Caches the complete result of a row that was passed to the parser. */
+  void store(int rowIndex, List<Issue> issues) {
+    RowDigest digest = pending.remove(rowIndex);
+    if (digest != null) cache.put(digest, List.copyOf(issues));
+  }
+
+  @Override
+  public int read() throws IOException {
+    byte[] one = new byte[1];
+    return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (len == 0) return 0;
+    while (segmentPos == segmentEnd) {
+      if (!advance()) return -1;
+    }
+    int n = Math.min(len, segmentEnd - segmentPos);
+    System.arraycopy(segment, segmentPos, b, off, n);
+    segmentPos += n;
+    return n;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+
+  /** Produces the next output segment; false at end of input. */
+  private boolean advance() throws IOException {
+    while (true) {
+      int start = indexOfRow(pos);
+      if (start < 0) {
+        // Hold back a few bytes in case "<row" straddles the end of the buffer.
+        int safe = eof ? limit : Math.max(pos, limit - ROW_OPEN.length - 1);
+        if (safe > pos) {
+          emit(buf, pos, safe);
+          pos = safe;
+          return true;
+        }
+        if (eof) return false;
+        fill();
+        continue;
+      }
+      if (start > pos) {
+        emit(buf, pos, start);
+        pos = start;
+        return true;
+      }
+      int end = rowEnd(pos);
+      if (end < 0) {
+        if (eof) {
+          emit(buf, pos, limit);
+          pos = limit;
+          return true;
+        }
+        fill();
+        continue;
+      }
+      boolean emitted = handleRow(pos, end);
+      pos = end;
+      if (emitted) return true;
+    }
+  }
+
+  private void emit(byte[] bytes, int from, int to) {
+    segment = bytes;
+    segmentPos = from;
+    segmentEnd = to;
+  }
+
+  private void fill() throws IOException {
+    if (pos > 0) {
+      System.arraycopy(buf, pos, buf, 0, limit - pos);
+      limit -= pos;
+      pos = 0;
+    }
+    if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+    int n = in.read(buf, limit, buf.length - limit);
+    if (n < 0) eof = true;
+    else limit += n;
+  }
+
+  /** Start of the next {@code <row} element (not {@code <rowBreaks}) at or after {@code from}, or -1. */
+  private int indexOfRow(int from) {
+    for (int i = from; i + ROW_OPEN.length < limit; i++) {
+      if (buf[i] == '<' && startsWith(i, ROW_OPEN) && isDelimiter(buf[i + ROW_OPEN.length])) return i;
+    }
+    return -1;
+  }
+
+  /** One past the end of the row element starting at {@code start}, or -1 if not yet buffered. */
+  private int rowEnd(int start) {
+    int gt = tagEnd(start);
+    if (gt < 0) return -1;
+    if (buf[gt - 1] == '/') return gt + 1;
+    for (int i = gt + 1; i + ROW_CLOSE.length < limit; i++) {
+      if (buf[i] == '<' && startsWith(i, ROW_CLOSE)) {
+        int j = skipSpace(i + ROW_CLOSE.length, limit);
+        if (j < limit && buf[j] == '>') return j + 1;
+      }
+    }
+    return -1;
+  }
+
+  /** Returns true if the row was emitted, false if it was dropped. */
+  private boolean handleRow(int start, int end) {
+    int r = rowNumber(start);
+    if (r == MALFORMED) {
+      skipping = false;
+      emit(buf, start, end);
+      return true;
+    }
+    int index = r > 0 ? r - 1 : lastRow + 1;
+    lastRow = index;
+
+    if (skipping) {
+      if (namespace == null) {
+        if (index == 0) {
+          sha.update(ruleset.getBytes(StandardCharsets.UTF_8));
+          namespace = digestRow(start, end);
+        } else {
+          skipping = false;
+        }
+      } else {
+        RowDigest digest = rowDigest(index, start, end);
+        if (digest != null) {
+          List<Issue> hit = cache.getIfPresent(digest);
+          if (hit != null) {
+            cachedIssues.addAll(hit);
+            skippedRows++;
+            return false;
+          }
+          pending.put(index, digest);
+        }
+      }
+    }
+
+    if (r != ABSENT) {
+      emit(buf, start, end);
+    } else {
+      byte[] attr = (" r=\"" + (index + 1) + "\"").getBytes(StandardCharsets.US_ASCII);
+      int head = start + ROW_OPEN.length;
+      byte[] row = new byte[end - start + attr.length];
+      System.arraycopy(buf, start, row, 0, ROW_OPEN.length);
+      System.arraycopy(attr, 0, row, ROW_OPEN.length, attr.length);
+      System.arraycopy(buf, head, row, ROW_OPEN.length + attr.length, end - head);
+      emit(row, 0, row.length);
+    }
+    return true;
+  }
+
+  private RowDigest rowDigest(int index, int start, int end) {
+    sha.update(namespace);
+    sha.update(intBytes(0, index));
+    byte[] d = digestRow(start, end);
+    if (d == null) return null;
+    ByteBuffer bb = ByteBuffer.wrap(d);
+    return new RowDigest(bb.getLong(), bb.getLong());
+  }
+
+  /**
+   * Hashes the row bytes, with each shared-string cell's {@code <v>index</v>}
+   * replaced by the string itself. Returns null (after resetting the digest)
+   * if an index cannot be resolved or a cell tag cannot be read; such a row is
+   * simply never cached. Markup the scan does not follow stops skipping.
+   */
+  private byte[] digestRow(int start, int end) {
+    int mark = start;
+    boolean sharedCell = false;
+    for (int i = start; i < end; i++) {
+      if (buf[i] != '<') continue;
+      if (buf[i + 1] == '!' || buf[i + 1] == '?') {
+        skipping = false;
+        sha.reset();
+        return null;
+      }
+      if (buf[i + 1] == 'c' && isDelimiter(buf[i + 2])) {
+        int tagEnd = tagEnd(i);
+        int t = tagEnd < 0 ? MALFORMED : attribute(i, tagEnd, (byte) 't');
+        if (t == MALFORMED) {
+          sha.reset();
+          return null;
+        }
+        sharedCell = t >= 0 && buf[t] == 's' && buf[t + 1] == buf[t - 1];
+        i = tagEnd;
+      } else if (sharedCell && buf[i + 1] == 'v' && isDelimiter(buf[i + 2])) {
+        int tagEnd = tagEnd(i);
+        if (tagEnd < 0 || buf[tagEnd - 1] == '/') {
+          sha.reset();
+          return null;
+        }
+        int valueStart = tagEnd + 1;
+        int valueEnd = valueStart;
+        int idx = 0;
+        while (valueEnd < end && buf[valueEnd] >= '0' && buf[valueEnd] <= '9' && idx < 100_000_000) {
+          idx = idx * 10 + (buf[valueEnd++] - '0');
+        }
+        byte[] text = valueEnd == valueStart || buf[valueEnd] != '<' ? null : resolve(idx);
+        if (text == null) {
+          sha.reset();
+          return null;
+        }
+        sha.update(buf, mark, valueStart - mark);
+        sha.update(intBytes(0, text.length));
+        sha.update(text);
+        mark = valueEnd;
+        i = valueEnd - 1;
+      }
+    }
+    sha.update(buf, mark, end - mark);
+    return sha.digest();
+  }
+
+  /** {@code tag} followed by {@code value}, big-endian, in a reused buffer. */
+  private byte[] intBytes(int tag, int value) {
+    scratch[0] = (byte) tag;
+    scratch[1] = (byte) (value >>> 24);
+    scratch[2] = (byte) (value >>> 16);
+    scratch[3] = (byte) (value >>> 8);
+    scratch[4] = (byte) value;
+    return scratch;
+  }
+
+  /** UTF-8 of shared string {@code idx}, converted once per sheet; null if there is no such string. */
+  private byte[] resolve(int idx) {
+    if (idx >= resolved.length) resolved = Arrays.copyOf(resolved, Math.max(idx + 1, resolved.length * 2));
+    byte[] text = resolved[idx];
+    if (text == null) {
+      String value;
+      try {
+        value = strings.getItemAt(idx).getString();
+      } catch (RuntimeException e) {
+        return null;
+      }
+      text = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+      resolved[idx] = text;
+    }
+    return text;
+  }
+
+  /**
+   * The row's {@code r} attribute: its positive value, {@link #ABSENT}, or
+   * {@link #MALFORMED} if the tag or the value cannot be read.
+   */
+  private int rowNumber(int start) {
+    int tagEnd = tagEnd(start);
+    int v = tagEnd < 0 ? MALFORMED : attribute(start, tagEnd, (byte) 'r');
+    if (v < 0) return v;
+    int value = 0;
+    int j = v;
+    for (; buf[j] >= '0' && buf[j] <= '9' && value < 100_000_000; j++) value = value * 10 + (buf[j] - '0');
+    return j == v || buf[j] != buf[v - 1] || value == 0 ? MALFORMED : value;
+  }
+
+  /**
+   * Position of the first value byte of the one-letter attribute {@code name}
+   * in the start tag {@code [from, tagEnd]}; the value ends at the quote byte
+   * found at {@code result - 1}. Returns {@link #ABSENT} or {@link #MALFORMED}.
+   */
+  private int attribute(int from, int tagEnd, byte name) {
+    int i = from + 1;
+    while (i < tagEnd && !isDelimiter(buf[i])) i++;
+    while (true) {
+      i = skipSpace(i, tagEnd);
+      if (i >= tagEnd || buf[i] == '/') return ABSENT;
+      int nameStart = i;
+      while (i < tagEnd && buf[i] != '=' && !isSpace(buf[i]) && buf[i] != '/') i++;
+      int nameLength = i - nameStart;
+      i = skipSpace(i, tagEnd);
+      if (nameLength == 0 || i >= tagEnd || buf[i] != '=') return MALFORMED;
+      i = skipSpace(i + 1, tagEnd);
+      if (i >= tagEnd || (buf[i] != '"' && buf[i] != '\'')) return MALFORMED;
+      byte quote = buf[i];
+      int valueStart = ++i;
+      while (i < tagEnd && buf[i] != quote) i++;
+      if (i >= tagEnd) return MALFORMED;
+      if (nameLength == 1 && buf[nameStart] == name) return valueStart;
+      i++;
+    }
+  }
+
+  /** The {@code >} closing the start tag at {@code from}, skipping quoted values; -1 if not yet buffered. */
+  private int tagEnd(int from) {
+    byte quote = 0;
+    for (int i = from + 1; i < limit; i++) {
+      byte b = buf[i];
+      if (quote != 0) {
+        if (b == quote) quote = 0;
+      } else if (b == '"' || b == '\'') {
+        quote = b;
+      } else if (b == '>') {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private int skipSpace(int i, int to) {
+    while (i < to && isSpace(buf[i])) i++;
+    return i;
+  }
+
+  private boolean startsWith(int at, byte[] prefix) {
+    if (at + prefix.length > limit) return false;
+    for (int i = 0; i < prefix.length; i++) {
+      if (buf[at + i] != prefix[i]) return false;
+    }
+    return true;
+  }
+
+  private static boolean isSpace(byte b) {
+    return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+  }
+
+  private static boolean isDelimiter(byte b) {
+    return isSpace(b) || b == '>' || b == '/';
+  }
+}
@@ -0,0 +1,120 @@
+package service;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Removes abandoned partial uploads and stored workbooks that have not been
+ * uploaded again within the retention period, unless a running
+ * {@code excelFlow} instance still uses them. Validation results in the
+ * {@link IssueStore} get the same retention, counted from validation. Issues
+ * stored under a process instance id (file missing) are kept while the
+ * instance or its history exists, so they go with history cleanup.
+ */
+@Component
+public class UploadCleanupJob {
+
+  private static final Logger log = LoggerFactory.getLogger(UploadCleanupJob.class);
+
+  private final UploadStore store;
+  private final IssueStore issueStore;
+  private final RuntimeService runtimeService;
+  private final HistoryService historyService;
+  private final Duration retention;
+  private final Duration partialRetention;
+
+  public UploadCleanupJob(UploadStore store, IssueStore issueStore,
+                          RuntimeService runtimeService, HistoryService historyService,
+                          @Value("${excel.upload.retention:PT24H}") Duration retention,
+                          @Value("${excel.upload.partial-retention:PT1H}") Duration partialRetention) {
+    this.store = store;
+    this.issueStore = issueStore;
+    this.runtimeService = runtimeService;
+    this.historyService = historyService;
+    this.retention = retention;
+    this.partialRetention = partialRetention;
+  }
+
+  @Scheduled(fixedDelayString = "${excel.upload.cleanup-interval:PT15M}",
+             initialDelayString = "${excel.upload.cleanup-interval:PT15M}")
+  public void cleanup() {
+    Instant now = Instant.now();
+    int removed = 0;
+    removed += sweep(store.incoming(), "*" + UploadStore.PARTIAL_EXTENSION, now.minus(partialRetention), false);
+    removed += sweep(store.root(), "*" + UploadStore.EXTENSION, now.minus(retention), true);
+    if (removed > 0) log.info("Removed {} stale upload file(s)", removed);
+    int results = purgeResults(now.minus(retention));
+    if (results > 0) log.info("Removed {} stale validation result(s)", results);
+  }
+
+  private int purgeResults(Instant cutoff) {
+    int removed = 0;
+    for (String hash : issueStore.resultsBefore(cutoff)) {
+      if (isInUse(hash)) continue;
+      issueStore.delete(hash);
+      removed++;
+    }
+    for (String instanceId : issueStore.instanceRefs()) {
+      if (instanceExists(instanceId)) continue;
+      issueStore.delete(instanceId);
+      removed++;
+    }
+    return removed;
+  }
+
+  private int sweep(Path dir, String glob, Instant cutoff, boolean skipActive) {
+    int removed = 0;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, glob)) {
+      for (Path file : files) {
+        try {
+          if (Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) continue;
+          if (skipActive && isInUse(hashOf(file))) continue;
+          if (Files.deleteIfExists(file)) removed++;
+        } catch (IOException e) {
+          log.warn("Could not clean up {}: {}", file, e.toString());
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not list {}: {}", dir, e.toString());
+    }
+    return removed;
+  }
+
+  /**
+   * The business key is the hash of the file an instance last validated. A
+   * file replaced through the upload API is only in {@code fileHash} until
+   * the next validation moves the key, so both are checked.
+   */
+  private boolean isInUse(String hash) {
+    return runtimeService.createProcessInstanceQuery()
+        .processDefinitionKey("excelFlow")
+        .processInstanceBusinessKey(hash)
+        .count() > 0
+        || runtimeService.createProcessInstanceQuery()
+        .processDefinitionKey("excelFlow")
+        .variableValueEquals("fileHash", hash)
+        .count() > 0;
+  }
+
+  private boolean instanceExists(String instanceId) {
+    return runtimeService.createProcessInstanceQuery().processInstanceId(instanceId).count() > 0
+        || historyService.createHistoricProcessInstanceQuery().processInstanceId(instanceId).count() > 0;
+  }
+
+  private static String hashOf(Path file) {
+    String name = file.getFileName().toString();
+    return name.substring(0, name.length() - UploadStore.EXTENSION.length());
+  }
+}
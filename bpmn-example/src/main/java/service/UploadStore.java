@@ -0,0 +1,107 @@
+package service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Content-addressed store for uploaded workbooks. A file is named after the
+ * SHA-256 of its bytes, computed while the upload is written, so uploading
+ * the same spreadsheet again costs one streamed write and no extra disk space.
+ *
+ * Uploads land in {@code incoming/} first and are moved into place
+ * atomically; readers never see a partial file under its final name.
+ */
+@Service
+public class UploadStore {
+
+  public record StoredFile(String hash, Path path, long size, boolean existed) {}
+
+  static final String EXTENSION = ".xlsx";
+  static final String PARTIAL_EXTENSION = ".part";
+
+  private final Path root;
+  private final Path incoming;
+
+  public UploadStore(@Value("${excel.upload.dir:${java.io.tmpdir}/excel-uploads}") Path root) throws IOException {
+    this.root = Files.createDirectories(root);
+    this.incoming = Files.createDirectories(root.resolve("incoming"));
+  }
+
+  public Path root() {
+    return root;
+  }
+
+  public Path incoming() {
+    return incoming;
+  }
+
+  public StoredFile store(InputStream in) throws IOException {
+    Path partial = Files.createTempFile(incoming, "upload-", PARTIAL_EXTENSION);
+    try {
+      MessageDigest digest = newDigest();
+      long size;
+      try (DigestInputStream din = new DigestInputStream(in, digest);
+           OutputStream out = Files.newOutputStream(partial)) {
+        size = din.transferTo(out);
+      }
+      String hash = HexFormat.of().formatHex(digest.digest());
+      Path target = pathFor(hash);
+      if (Files.exists(target)) {
+        // Refresh the timestamp so the cleanup job treats the file as recently used.
+        Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        return new StoredFile(hash, target, size, true);
+      }
+      try {
+        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(partial, target);
+      } catch (FileAlreadyExistsException e) {
+        // A concurrent upload of the same content won the race; its file is identical.
+        return new StoredFile(hash, target, size, true);
+      }
+      return new StoredFile(hash, target, size, false);
+    } finally {
+      Files.deleteIfExists(partial);
+    }
+  }
+
+  public Path pathFor(String hash) {
+    return root.resolve(hash + EXTENSION);
+  }
+
+  /** Hash of a file already on disk, for instances started without one. */
+  public static String sha256(Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+      in.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  public static String sha256(byte[] bytes) {
+    return HexFormat.of().formatHex(newDigest().digest(bytes));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,21 @@
+-- Validation issues, kept out of Camunda process variables.
+-- ref is the SHA-256 of the validated file (the process instance id if the file
+-- was missing); seq is the dense 0-based position in report order.
+create table if not exists excel_issue (
+  ref      varchar(64)   not null,
+  seq      int           not null,
+  row_num  int           not null,
+  col      varchar(64)   not null,
+  message  varchar(512)  not null,
+  primary key (ref, seq)
+);
+
+-- One row per validated file content and ruleset; issues are stored in
+-- excel_issue under ref = file_hash. Rows older than excel.upload.retention
+-- are removed by UploadCleanupJob unless a running instance uses the file.
+create table if not exists excel_validation_result (
+  file_hash     varchar(64)  not null primary key,
+  ruleset       varchar(64)  not null,
+  issue_count   int          not null,
+  validated_at  timestamp    not null
+);
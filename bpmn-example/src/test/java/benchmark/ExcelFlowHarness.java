@@ -0,0 +1,304 @@
+package benchmark;
+
+import com.example.camundaexcel.CamundaExcelApp;
+import controller.TaskController;
+import controller.UploadController;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.delegate.ExecutionListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.task.Task;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end excelFlow throughput. Starts the application context headless on
+ * a fresh in-memory H2 and, for each workbook size, pushes instances through
+ * UploadController.startRaw, validation, approval via TaskController.complete
+ * and publish.
+ *
+ * <pre>
+ * MAVEN_OPTS=-Xmx2g mvn -q test-compile exec:java \
+ *   -Dexec.mainClass=benchmark.ExcelFlowHarness \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.args="--sizes 100,1000,10000 --instances 50 --concurrency 4 --async true --history excel-audit"
+ * </pre>
+ *
+ * Every instance gets its own generated workbook, so neither upload dedup nor
+ * the validation-result cache short-circuits the run; generation happens
+ * before the clock starts. Per-activity latencies come from execution
+ * listeners the harness adds to every activity. For user tasks that is the
+ * time until the harness completed them, not engine work. Heap is sampled
+ * every 50 ms for the peak and read once more after a GC at the end of each size.
+ */
+public class ExcelFlowHarness {
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> opts = options(args);
+    int[] sizes = Arrays.stream(opts.getOrDefault("sizes", "100,1000,10000").split(","))
+        .mapToInt(Integer::parseInt).toArray();
+    int instances = Integer.parseInt(opts.getOrDefault("instances", "50"));
+    int concurrency = Integer.parseInt(opts.getOrDefault("concurrency", "4"));
+    boolean async = Boolean.parseBoolean(opts.getOrDefault("async", "true"));
+    String history = opts.getOrDefault("history", "excel-audit");
+
+    Path dir = Files.createTempDirectory("excel-flow-harness-");
+    ConfigurableApplicationContext ctx = new SpringApplicationBuilder(CamundaExcelApp.class, HarnessConfig.class)
+        .web(WebApplicationType.NONE)
+        // Passed as arguments so they take precedence over application.yml.
+        .run(
+            "--spring.datasource.url=jdbc:h2:mem:harness-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+            "--excel.upload.dir=" + dir.resolve("uploads"),
+            "--excel.validation.async=" + async,
+            "--camunda.bpm.history-level=" + history,
+            // Without a servlet container the REST and webapp starters have nothing to attach to.
+            "--spring.autoconfigure.exclude="
+                + "org.camunda.bpm.spring.boot.starter.rest.CamundaBpmRestJerseyAutoConfiguration,"
+                + "org.camunda.bpm.spring.boot.starter.webapp.CamundaBpmWebappAutoConfiguration",
+            "--logging.level.root=WARN");
+    try {
+      UploadController uploads = ctx.getBean(UploadController.class);
+      TaskController taskController = ctx.getBean(TaskController.class);
+      TaskService taskService = ctx.getBean(TaskService.class);
+      HistoryService historyService = ctx.getBean(HistoryService.class);
+
+      System.out.printf("async=%s history=%s concurrency=%d instances/size=%d%n",
+          async, history, concurrency, instances);
+      for (int rows : sizes) {
+        List<Path> files = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+          Path file = dir.resolve("rows-" + rows + "-" + i + ".xlsx");
+          generate(file, rows, rows + "-" + i);
+          files.add(file);
+        }
+        ActivityTimer.reset();
+        runSize(rows, files, concurrency, uploads, taskController, taskService, historyService);
+        for (Path file : files) Files.delete(file);
+      }
+    } finally {
+      ctx.close();
+    }
+  }
+
+  private static void runSize(int rows, List<Path> files, int concurrency, UploadController uploads,
+                              TaskController taskController, TaskService taskService,
+                              HistoryService historyService) throws Exception {
+    Histogram upload = new Histogram();
+    Histogram untilApproval = new Histogram();
+    Histogram approve = new Histogram();
+    Histogram endToEnd = new Histogram();
+    AtomicInteger next = new AtomicInteger();
+    AtomicInteger failures = new AtomicInteger();
+
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    AtomicLong peakHeap = new AtomicLong();
+    ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    sampler.scheduleAtFixedRate(
+        () -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+        0, 50, TimeUnit.MILLISECONDS);
+
+    ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    long start = System.nanoTime();
+    try {
+      List<Future<?>> running = new ArrayList<>();
+      for (int w = 0; w < concurrency; w++) {
+        running.add(workers.submit(() -> {
+          for (int i = next.getAndIncrement(); i < files.size(); i = next.getAndIncrement()) {
+            try {
+              long t0 = System.nanoTime();
+              String pi;
+              try (InputStream in = Files.newInputStream(files.get(i))) {
+                ResponseEntity<?> res = uploads.startRaw(in, files.get(i).getFileName().toString());
+                pi = (String) ((Map<?, ?>) res.getBody()).get("processInstanceId");
+              }
+              long t1 = System.nanoTime();
+              Task task = awaitTask(taskService, pi, "task_approve");
+              long t2 = System.nanoTime();
+              taskController.complete(task.getId());
+              long t3 = System.nanoTime();
+              if (historyService.createHistoricProcessInstanceQuery().processInstanceId(pi).finished().count() != 1) {
+                throw new IllegalStateException("Instance " + pi + " did not finish");
+              }
+              upload.record(t1 - t0);
+              untilApproval.record(t2 - t1);
+              approve.record(t3 - t2);
+              endToEnd.record(t3 - t0);
+            } catch (Exception e) {
+              failures.incrementAndGet();
+              System.err.println("Instance failed: " + e);
+            }
+          }
+          return null;
+        }));
+      }
+      for (Future<?> f : running) f.get();
+    } finally {
+      workers.shutdown();
+      sampler.shutdown();
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.gc();
+    long retained = memory.getHeapMemoryUsage().getUsed();
+
+    System.out.printf("%nrows=%d instances=%d failures=%d  %.2f instances/s  heap peak %d MB, after GC %d MB%n",
+        rows, files.size(), failures.get(), (files.size() - failures.get()) / seconds,
+        peakHeap.get() >> 20, retained >> 20);
+    System.out.println(Histogram.HEADER);
+    upload.print("upload (start call)");
+    untilApproval.print("upload -> task_approve");
+    approve.print("approve + publish");
+    endToEnd.print("end to end");
+    new TreeMap<>(ActivityTimer.TIMES).forEach((activity, h) -> h.print("activity " + activity));
+  }
+
+  /** Polls until the instance reaches the given user task; only needed in async mode. */
+  private static Task awaitTask(TaskService taskService, String pi, String taskKey) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+    while (System.nanoTime() < deadline) {
+      Task task = taskService.createTaskQuery().processInstanceId(pi).taskDefinitionKey(taskKey).singleResult();
+      if (task != null) return task;
+      if (taskService.createTaskQuery().processInstanceId(pi).taskDefinitionKey("task_fix").count() > 0) {
+        throw new IllegalStateException("Instance " + pi + " failed validation");
+      }
+      Thread.sleep(5);
+    }
+    throw new IllegalStateException("Timed out waiting for " + taskKey + " on " + pi);
+  }
+
+  private static void generate(Path file, int rows, String tag) throws Exception {
+    try (SXSSFWorkbook wb = new SXSSFWorkbook(null, 200, true, true)) {
+      Sheet sheet = wb.createSheet("Resources");
+      Row header = sheet.createRow(0);
+      String[] names = {"ProjectCode", "ResourceName", "RateCurrency", "Rate"};
+      for (int i = 0; i < names.length; i++) header.createCell(i).setCellValue(names[i]);
+      String[] ccys = {"USD", "EUR", "GBP", "INR"};
+      for (int r = 1; r <= rows; r++) {
+        Row row = sheet.createRow(r);
+        row.createCell(0).setCellValue("PRJ-" + (r % 500));
+        row.createCell(1).setCellValue("Resource " + r + " " + tag);
+        row.createCell(2).setCellValue(ccys[r % ccys.length]);
+        row.createCell(3).setCellValue(50 + r % 100);
+      }
+      try (OutputStream out = Files.newOutputStream(file)) {
+        wb.write(out);
+      }
+    }
+  }
+
+  private static Map<String, String> options(String[] args) {
+    Map<String, String> opts = new TreeMap<>();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (!args[i].startsWith("--")) throw new IllegalArgumentException("Unexpected argument " + args[i]);
+      opts.put(args[i].substring(2), args[i + 1]);
+    }
+    return opts;
+  }
+
+  /** Times every activity of every deployed process with built-in start/end listeners. */
+  @Configuration
+  static class HarnessConfig {
+    @Bean
+    AbstractProcessEnginePlugin activityTimerPlugin() {
+      return new AbstractProcessEnginePlugin() {
+        @Override
+        public void preInit(ProcessEngineConfigurationImpl configuration) {
+          List<BpmnParseListener> listeners = configuration.getCustomPostBPMNParseListeners();
+          if (listeners == null) {
+            listeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(listeners);
+          }
+          listeners.add(new AbstractBpmnParseListener() {
+            @Override
+            public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+              ActivityTimer.attach(processDefinition);
+            }
+          });
+        }
+      };
+    }
+  }
+
+  static final class ActivityTimer {
+    static final Map<String, Histogram> TIMES = new ConcurrentHashMap<>();
+    private static final Map<String, Long> STARTED = new ConcurrentHashMap<>();
+
+    static void reset() {
+      TIMES.clear();
+      STARTED.clear();
+    }
+
+    static void attach(ScopeImpl scope) {
+      for (ActivityImpl activity : scope.getActivities()) {
+        activity.addBuiltInListener(ExecutionListener.EVENTNAME_START,
+            (ExecutionListener) execution -> STARTED.put(execution.getActivityInstanceId(), System.nanoTime()));
+        activity.addBuiltInListener(ExecutionListener.EVENTNAME_END, (ExecutionListener) execution -> {
+          Long started = STARTED.remove(execution.getActivityInstanceId());
+          if (started != null) {
+            TIMES.computeIfAbsent(activity.getId(), id -> new Histogram()).record(System.nanoTime() - started);
+          }
+        });
+        attach(activity);
+      }
+    }
+  }
+
+  /** Keeps every sample; runs are small enough that exact percentiles are affordable. */
+  static final class Histogram {
+    static final String HEADER = String.format("%-28s %7s %9s %9s %9s %9s", "", "n", "p50 ms", "p90 ms", "p99 ms", "max ms");
+
+    private long[] samples = new long[256];
+    private int size;
+
+    synchronized void record(long nanos) {
+      if (size == samples.length) samples = Arrays.copyOf(samples, size * 2);
+      samples[size++] = nanos;
+    }
+
+    synchronized void print(String label) {
+      if (size == 0) return;
+      long[] sorted = Arrays.copyOf(samples, size);
+      Arrays.sort(sorted);
+      System.out.printf("%-28s %7d %9.1f %9.1f %9.1f %9.1f%n", label, size,
+          pct(sorted, 0.50), pct(sorted, 0.90), pct(sorted, 0.99), sorted[size - 1] / 1e6);
+    }
+
+    private static double pct(long[] sorted, double p) {
+      return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package benchmark;
+
+import config.ExcelAuditHistoryLevel;
+import delegate.ApprovalListener;
+import delegate.ParseValidateDelegate;
+import delegate.PublishArtifactsDelegate;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.h2.jdbcx.JdbcDataSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import service.ExcelValidationService;
+import service.IssueStore;
+import service.UploadStore;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs excelFlow instances start → validate → approve → publish → end on a
+ * standalone engine for each history level. It reports throughput, history
+ * rows and the size of the H2 database file.
+ *
+ * <pre>
+ * mvn -q test-compile exec:java \
+ *   -Dexec.mainClass=benchmark.HistoryLevelBenchmark \
+ *   -Dexec.classpathScope=test \
+ *   -Dexec.args="100000 none activity audit full excel-audit"
+ * </pre>
+ *
+ * Every instance validates the same small workbook, so after the first one
+ * the result comes from the validation-result table and the numbers measure
+ * the engine, not POI. Row counts include the warm-up instances.
+ */
+public class HistoryLevelBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int instances = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    List<String> levels = args.length > 1
+        ? List.of(args).subList(1, args.length)
+        : List.of("none", "activity", "audit", "full", ExcelAuditHistoryLevel.NAME);
+    Path dir = Files.createTempDirectory("history-bench-");
+    Path workbook = dir.resolve("resources.xlsx");
+    writeWorkbook(workbook);
+    String hash = UploadStore.sha256(workbook);
+
+    System.out.printf("%-12s %10s %10s %12s %12s %12s %12s %8s%n",
+        "level", "inst/s", "histRows", "HI_PROCINST", "HI_ACTINST", "HI_VARINST", "HI_DETAIL", "dbMB");
+    // Throwaway pass so the first level measured does not pay for JIT warm-up.
+    run(dir, "jit", "full", Math.min(instances, 2000), workbook, hash, false);
+    for (String level : levels) {
+      run(dir, level, level, instances, workbook, hash, true);
+    }
+  }
+
+  private static void run(Path dir, String name, String level, int instances, Path workbook, String hash,
+                          boolean report) throws Exception {
+    Path dbFile = dir.resolve(name);
+    JdbcDataSource ds = new JdbcDataSource();
+    ds.setURL("jdbc:h2:file:" + dbFile + ";DB_CLOSE_DELAY=-1");
+    ds.setUser("sa");
+    new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(ds);
+
+    JdbcTemplate jdbc = new JdbcTemplate(ds);
+    ExcelValidationService validation = new ExcelValidationService(1000);
+    ParseValidateDelegate validate = new ParseValidateDelegate(validation, new IssueStore(jdbc), 10);
+
+    StandaloneProcessEngineConfiguration cfg = new StandaloneProcessEngineConfiguration();
+    cfg.setDataSource(ds);
+    cfg.setDatabaseSchemaUpdate("true");
+    cfg.setHistory(level);
+    cfg.setCustomHistoryLevels(List.of(new ExcelAuditHistoryLevel()));
+    cfg.setHistoryRemovalTimeStrategy("end");
+    cfg.setJobExecutorActivate(false);
+    cfg.setMetricsEnabled(false);
+    cfg.setBeans(Map.of(
+        "parseValidateDelegate", validate,
+        "publishArtifactsDelegate", new PublishArtifactsDelegate(),
+        "approvalListener", new ApprovalListener()));
+    ProcessEngine engine = cfg.buildProcessEngine();
+    try {
+      engine.getRepositoryService().createDeployment()
+          .addClasspathResource("bpmn/excel-flow.bpmn")
+          .deploy();
+      RuntimeService runtime = engine.getRuntimeService();
+      TaskService tasks = engine.getTaskService();
+      Map<String, Object> vars = Map.of(
+          "filePath", workbook.toString(),
+          "fileHash", hash,
+          "fileName", "resources.xlsx");
+      Map<String, Object> approval = Map.of("approvedBy", "benchmark");
+
+      int warmup = Math.min(1000, instances / 10);
+      long start = 0;
+      for (int i = 0; i < warmup + instances; i++) {
+        if (i == warmup) start = System.nanoTime();
+        String pi = runtime.startProcessInstanceByKey("excelFlow", hash, vars).getId();
+        String task = tasks.createTaskQuery().processInstanceId(pi).singleResult().getId();
+        tasks.complete(task, approval);
+      }
+      double perSecond = instances * 1e9 / (System.nanoTime() - start);
+
+      long procinst = count(jdbc, "ACT_HI_PROCINST");
+      long actinst = count(jdbc, "ACT_HI_ACTINST");
+      long varinst = count(jdbc, "ACT_HI_VARINST");
+      long detail = count(jdbc, "ACT_HI_DETAIL");
+      long total = jdbc.queryForList(
+          "select table_name from information_schema.tables where table_name like 'ACT_HI_%'", String.class)
+          .stream().mapToLong(t -> count(jdbc, t)).sum();
+      jdbc.execute("SHUTDOWN COMPACT");
+      long bytes = Files.size(dir.resolve(name + ".mv.db"));
+      if (report) System.out.printf("%-12s %10.0f %10d %12d %12d %12d %12d %8d%n",
+          level, perSecond, total, procinst, actinst, varinst, detail, bytes >> 20);
+    } finally {
+      engine.close();
+    }
+  }
+
+  private static long count(JdbcTemplate jdbc, String table) {
+    Long n = jdbc.queryForObject("select count(*) from " + table, Long.class);
+    return n == null ? 0 : n;
+  }
+
+  private static void writeWorkbook(Path file) throws Exception {
+    try (XSSFWorkbook wb = new XSSFWorkbook()) {
+      Sheet sheet = wb.createSheet("Resources");
+      Row header = sheet.createRow(0);
+      String[] names = {"ProjectCode", "ResourceName", "RateCurrency", "Rate"};
+      for (int i = 0; i < names.length; i++) header.createCell(i).setCellValue(names[i]);
+      for (int r = 1; r <= 20; r++) {
+        Row row = sheet.createRow(r);
+        row.createCell(0).setCellValue("PRJ-" + r);
+        row.createCell(1).setCellValue("Resource " + r);
+        row.createCell(2).setCellValue("EUR");
+        row.createCell(3).setCellValue(100 + r);
+      }
+      try (OutputStream out = Files.newOutputStream(file)) {
+        wb.write(out);
+      }
+    }
+  }
+}
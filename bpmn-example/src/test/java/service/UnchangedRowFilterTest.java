@@ -0,0 +1,153 @@
+package service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.poi.ss.usermodel.RichTextString;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.jupiter.api.Test;
+import service.ExcelValidationService.Issue;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UnchangedRowFilterTest {
+
+  private static final String HEADER = "<row r=\"1\"><c r=\"A1\" t=\"inlineStr\"><is><t>Name</t></is></c></row>";
+
+  private final Cache<UnchangedRowFilter.RowDigest, List<Issue>> cache = Caffeine.newBuilder().build();
+
+  @Test
+  void acceptsEitherQuoteAndSpacesAroundEquals() throws IOException {
+    String sheet = sheet(HEADER,
+        "<row r='2'><c r='A2'><v>1</v></c></row>",
+        "<row r = \"3\" ><c r = 'A3' ><v>2</v></c></row>");
+
+    Run first = run(sheet, strings());
+    assertEquals(sheet, first.output, "rows that carry r must pass through untouched");
+    first.storeAll(3);
+
+    Run second = run(sheet, strings());
+    assertEquals(sheet(HEADER), second.output);
+    assertEquals(2, second.filter.skippedRows());
+    assertEquals(2, second.filter.cachedIssues().size());
+  }
+
+  @Test
+  void numbersRowsWithoutR() throws IOException {
+    String header = "<row><c t=\"inlineStr\"><is><t>Name</t></is></c></row>";
+    Run first = run(sheet(header, "<row><c><v>1</v></c></row>", "<row><c><v>2</v></c></row>", "<row><c><v>3</v></c></row>"), strings());
+    assertEquals(sheet("<row r=\"1\"><c t=\"inlineStr\"><is><t>Name</t></is></c></row>",
+        "<row r=\"2\"><c><v>1</v></c></row>", "<row r=\"3\"><c><v>2</v></c></row>", "<row r=\"4\"><c><v>3</v></c></row>"),
+        first.output);
+    first.storeAll(4);
+
+    Run second = run(sheet(header, "<row><c><v>1</v></c></row>", "<row><c><v>9</v></c></row>", "<row><c><v>3</v></c></row>"), strings());
+    assertEquals(sheet("<row r=\"1\"><c t=\"inlineStr\"><is><t>Name</t></is></c></row>", "<row r=\"3\"><c><v>9</v></c></row>"),
+        second.output, "the edited row keeps its number after the row before it is dropped");
+    assertEquals(2, second.filter.skippedRows());
+  }
+
+  @Test
+  void handlesSelfClosingRows() throws IOException {
+    String sheet = sheet(HEADER, "<row r=\"2\"/>", "<row r='3' spans=\"1:1\" />", "<row r=\"4\"><c r=\"A4\"><v>4</v></c></row>");
+
+    Run first = run(sheet, strings());
+    assertEquals(sheet, first.output);
+    first.storeAll(4);
+
+    Run second = run(sheet, strings());
+    assertEquals(sheet(HEADER), second.output);
+    assertEquals(3, second.filter.skippedRows());
+  }
+
+  @Test
+  void hashesSharedStringsByTextWhateverTheQuoting() throws IOException {
+    String sheet = sheet(HEADER, "<row r=\"2\"><c r=\"A2\" t='s'><v>0</v></c></row>", "<row r=\"3\"><c r=\"A3\" t = \"s\"><v>1</v></c></row>");
+    run(sheet, strings("a", "b")).storeAll(3);
+
+    Run renumbered = run(sheet(HEADER, "<row r=\"2\"><c r=\"A2\" t='s'><v>1</v></c></row>", "<row r=\"3\"><c r=\"A3\" t = \"s\"><v>0</v></c></row>"),
+        strings("b", "a"));
+    assertEquals(2, renumbered.filter.skippedRows(), "same text under new indexes is unchanged");
+
+    Run edited = run(sheet, strings("x", "b"));
+    assertEquals(1, edited.filter.skippedRows(), "same index with new text is a change");
+    assertTrue(edited.output.contains("<row r=\"2\">"));
+  }
+
+  @Test
+  void hashesInlineStringsAsWritten() throws IOException {
+    String row = "<row r=\"2\"><c r=\"A2\" t=\"inlineStr\"><is><t>%s</t></is></c></row>";
+    run(sheet(HEADER, row.formatted("x")), strings()).storeAll(2);
+
+    assertEquals(1, run(sheet(HEADER, row.formatted("x")), strings()).filter.skippedRows());
+    assertEquals(0, run(sheet(HEADER, row.formatted("y")), strings()).filter.skippedRows());
+  }
+
+  @Test
+  void passesUnreadableRowsThroughAndStopsSkipping() throws IOException {
+    String row3 = "<row r=\"3\"><c r=\"A3\"><v>3</v></c></row>";
+    run(sheet(HEADER, "<row r=\"2\"><c r=\"A2\"><v>2</v></c></row>", row3), strings()).storeAll(3);
+
+    for (String bad : List.of("<row r=2><c r=\"A2\"><v>2</v></c></row>", "<row r=\"x\"><c r=\"A2\"><v>2</v></c></row>",
+        "<row r=\"2\"><!-- note --><c r=\"A2\"><v>2</v></c></row>")) {
+      String sheet = sheet(HEADER, bad, row3);
+      Run run = run(sheet, strings());
+      assertEquals(sheet, run.output, bad);
+      assertEquals(0, run.filter.skippedRows(), bad);
+    }
+  }
+
+  private static String sheet(String... rows) {
+    return "<worksheet><sheetData>" + String.join("", rows) + "</sheetData><rowBreaks count=\"0\"/></worksheet>";
+  }
+
+  private Run run(String sheet, SharedStrings strings) throws IOException {
+    UnchangedRowFilter filter = new UnchangedRowFilter(new Trickle(sheet), strings, cache, "ruleset");
+    return new Run(filter, new String(filter.readAllBytes(), StandardCharsets.UTF_8));
+  }
+
+  private record Run(UnchangedRowFilter filter, String output) {
+    void storeAll(int rows) {
+      for (int row = 1; row < rows; row++) filter.store(row, List.of(new Issue(row, "A", "row " + row)));
+    }
+  }
+
+  private static SharedStrings strings(String... values) {
+    return new SharedStrings() {
+      @Override
+      public RichTextString getItemAt(int idx) {
+        return new XSSFRichTextString(values[idx]);
+      }
+
+      @Override
+      public int getCount() {
+        return values.length;
+      }
+
+      @Override
+      public int getUniqueCount() {
+        return values.length;
+      }
+    };
+  }
+
+  /** Hands out a few bytes per read, so tags straddle buffer refills. */
+  private static final class Trickle extends FilterInputStream {
+    Trickle(String s) {
+      super(new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      return super.read(b, off, Math.min(len, 3));
+    }
+  }
+}
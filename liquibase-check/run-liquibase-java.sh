@@ -14,6 +14,7 @@ echo "[INFO] Starting Liquibase Java runner script"
 #   ./run-liquibase-java.sh rollback h2 "" "" "" "" v1.0
 #   ./run-liquibase-java.sh rollback h2 "" "" "" "" 1
 #   ./run-liquibase-java.sh status clickhouse "jdbc:clickhouse://localhost:8123/default" default "" "db/changelog/db.changelog-master.sql"
+#   ./run-liquibase-java.sh update --targets targets.csv --parallel 8 [--fail-fast|--continue]
 
 JAR_PATH="target/liquibase-check-1.0-SNAPSHOT-shaded.jar"
 
@@ -0,0 +1,34 @@
+package com.example.liquibasecheck;
+
+import java.util.Optional;
+
+/**
+ * One database to migrate: a name for logs and reports, the database type
+ * (h2, oracle or clickhouse) and its connection details. Blank values fall
+ * back to the defaults for the type.
+ */
+public record DatabaseTarget(String name, String dbType, String url, String user, String password,
+                             String changelog, String driver) {
+
+    public static final String DEFAULT_CHANGELOG = "db/changelog/db.changelog-master.sql";
+
+    public static DatabaseTarget of(String name, String dbType, String url, String user, String password,
+                                    String changelog) {
+        String type = dbType == null || dbType.isBlank() ? "h2" : dbType.toLowerCase();
+        return switch (type) {
+            case "clickhouse" -> new DatabaseTarget(name, type,
+                    or(url, "jdbc:clickhouse://localhost:8123/default"), or(user, "default"), or(password, ""),
+                    or(changelog, DEFAULT_CHANGELOG), "com.clickhouse.jdbc.ClickHouseDriver");
+            case "oracle" -> new DatabaseTarget(name, type,
+                    or(url, "jdbc:oracle:thin:@localhost:1521:xe"), or(user, "system"), or(password, "oracle"),
+                    or(changelog, DEFAULT_CHANGELOG), "oracle.jdbc.OracleDriver");
+            default -> new DatabaseTarget(name, type,
+                    or(url, "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1"), or(user, "sa"), or(password, ""),
+                    or(changelog, DEFAULT_CHANGELOG), "org.h2.Driver");
+        };
+    }
+
+    private static String or(String value, String fallback) {
+        return Optional.ofNullable(value).filter(v -> !v.isBlank()).orElse(fallback);
+    }
+}
@@ -30,28 +30,19 @@ public class LiquibaseRunner {
         String[] dbArgs = new String[args.length > 1 ? args.length - 1 : 0];
         if (args.length > 1) System.arraycopy(args, 1, dbArgs, 0, args.length - 1);
 
+        if (MigrationOrchestrator.isRequested(dbArgs)) {
+            System.exit(MigrationOrchestrator.run(command, dbArgs));
+        }
+
         String defaultDb = "h2";
         String dbType = getArg(dbArgs, 0).orElse(System.getenv().getOrDefault("DB_TYPE", defaultDb)).toLowerCase();
-
-        String url, user, pass, driver, changelog;
-        changelog = getArg(dbArgs, 4).orElse(System.getenv().getOrDefault("CHANGELOG", "db/changelog/db.changelog-master.sql"));
-
-        if ("clickhouse".equals(dbType)) {
-            url = getArg(dbArgs, 1).orElse(System.getenv().getOrDefault("DB_URL", "jdbc:clickhouse://localhost:8123/default"));
-            user = getArg(dbArgs, 2).orElse(System.getenv().getOrDefault("DB_USER", "default"));
-            pass = getArg(dbArgs, 3).orElse(System.getenv().getOrDefault("DB_PASS", ""));
-            driver = "com.clickhouse.jdbc.ClickHouseDriver";
-        } else if ("oracle".equals(dbType)) {
-            url = getArg(dbArgs, 1).orElse(System.getenv().getOrDefault("DB_URL", "jdbc:oracle:thin:@localhost:1521:xe"));
-            user = getArg(dbArgs, 2).orElse(System.getenv().getOrDefault("DB_USER", "system"));
-            pass = getArg(dbArgs, 3).orElse(System.getenv().getOrDefault("DB_PASS", "oracle"));
-            driver = "oracle.jdbc.OracleDriver";
-        } else {
-            url = getArg(dbArgs, 1).orElse(System.getenv().getOrDefault("DB_URL", "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1"));
-            user = getArg(dbArgs, 2).orElse(System.getenv().getOrDefault("DB_USER", "sa"));
-            pass = getArg(dbArgs, 3).orElse(System.getenv().getOrDefault("DB_PASS", ""));
-            driver = "org.h2.Driver";
-        }
+        DatabaseTarget target = DatabaseTarget.of(dbType, dbType,
+                getArg(dbArgs, 1).orElse(System.getenv("DB_URL")),
+                getArg(dbArgs, 2).orElse(System.getenv("DB_USER")),
+                getArg(dbArgs, 3).orElse(System.getenv("DB_PASS")),
+                getArg(dbArgs, 4).orElse(System.getenv("CHANGELOG")));
+        String url = target.url(), user = target.user(), pass = target.password();
+        String driver = target.driver(), changelog = target.changelog();
 
         log.info("Command: {}", command);
         log.info("Database type: {}", dbType);
@@ -70,15 +61,27 @@ public class LiquibaseRunner {
 
         try (Connection conn = DriverManager.getConnection(url, user, pass)) {
             log.info("Successfully connected to the database");
+            StatusCache statusCache = StatusCache.forChangelog(changelog);
+            if (statusCache != null && ("status".equals(command) || "update".equals(command))) {
+                long start = System.nanoTime();
+                if (statusCache.isUpToDate(conn, dbType)) {
+                    log.info("No pending changesets (status cache, {} ms); skipping changelog parsing",
+                            (System.nanoTime() - start) / 1_000_000);
+                    if ("status".equals(command)) System.out.println(conn.getMetaData().getUserName() + "@" + url + " is up to date");
+                    return;
+                }
+            }
+            ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
             Database database = DatabaseFactory.getInstance()
                     .findCorrectDatabaseImplementation(new JdbcConnection(conn));
-            Liquibase liquibase = new Liquibase(changelog, new ClassLoaderResourceAccessor(), database);
+            Liquibase liquibase = new Liquibase(changelog, resourceAccessor, database);
 
             switch (command) {
                 case "update":
                     log.info("Starting Liquibase update");
                     liquibase.update((String) null);
                     log.info("Migration completed successfully.");
+                    if (statusCache != null) statusCache.store(liquibase.getDatabaseChangeLog(), resourceAccessor);
                     break;
                 case "rollback":
                     String rollbackArg = getArg(dbArgs, 5).orElse(null);
@@ -98,10 +101,12 @@ public class LiquibaseRunner {
                     break;
                 case "status":
                     log.info("Checking for pending changesets...");
-                    try (PrintWriter writer = new PrintWriter(System.out, true)) {
-                        liquibase.reportStatus(true, "", writer);
-                    }
+                    // Not closed: closing it would close System.out and silence the log lines that follow.
+                    PrintWriter writer = new PrintWriter(System.out, true);
+                    liquibase.reportStatus(true, "", writer);
+                    writer.flush();
                     log.info("Status check completed.");
+                    if (statusCache != null) statusCache.store(liquibase.getDatabaseChangeLog(), resourceAccessor);
                     break;
                 default:
                     log.error("Unknown command: {}", command);
@@ -0,0 +1,308 @@
+package com.example.liquibasecheck;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.Scope;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs update, status or rollback against many databases at once, e.g. every
+ * shard plus the Oracle and ClickHouse copies of the same changelog.
+ *
+ * Targets come from a file, one per line:
+ * <pre>
+ *   # name,dbType,url,user,password[,changelog]
+ *   shard-01,h2,jdbc:h2:file:./data/shard01,sa,
+ *   reporting,oracle,jdbc:oracle:thin:@db:1521:xe,app,${ORACLE_PASS}
+ * </pre>
+ * Blank fields take the same defaults as the single-database runner, and
+ * {@code ${VAR}} is replaced from the environment so passwords stay out of the
+ * file. At most {@code --parallel} targets (default 8) run at a time. Each
+ * target opens one connection and uses it for all of its steps: the pending
+ * check, the command itself and the re-check afterwards. For update and status
+ * a target whose {@link StatusCache} shows nothing pending is reported
+ * without parsing the changelog at all.
+ *
+ * With {@code --fail-fast} (the default) the first failure stops targets that
+ * have not started yet; they are reported as SKIPPED. Targets already running
+ * are left to finish, since interrupting a migration half way is worse than
+ * letting it complete. {@code --continue} runs every target regardless.
+ *
+ * Usage:
+ *   java -jar liquibase-check.jar update --targets targets.csv [--parallel 8] [--fail-fast | --continue]
+ *   java -jar liquibase-check.jar rollback --targets targets.csv v1.0
+ *
+ * Exits with 0 when every target succeeded and 1 otherwise.
+ */
+public class MigrationOrchestrator {
+    private static final Logger log = LoggerFactory.getLogger(MigrationOrchestrator.class);
+    private static final Pattern ENV = Pattern.compile("\\$\\{([A-Za-z_][A-Za-z0-9_]*)}");
+
+    enum Outcome { OK, FAILED, SKIPPED }
+
+    /** Per-target line of the consolidated report. Counts are -1 when unknown. */
+    record Result(DatabaseTarget target, Outcome outcome, int pendingBefore, int pendingAfter,
+                  long connectMillis, long runMillis, String detail) {
+    }
+
+    private final String command;
+    private final String rollbackArg;
+    private final int parallelism;
+    private final boolean failFast;
+
+    MigrationOrchestrator(String command, String rollbackArg, int parallelism, boolean failFast) {
+        this.command = command;
+        this.rollbackArg = rollbackArg;
+        this.parallelism = parallelism;
+        this.failFast = failFast;
+    }
+
+    static boolean isRequested(String[] args) {
+        for (String arg : args) {
+            if ("--targets".equals(arg)) return true;
+        }
+        return false;
+    }
+
+    /** Parses the orchestrator options, runs every target and prints the report. Returns the exit code. */
+    static int run(String command, String[] args) {
+        Path targetsFile = null;
+        Integer parallel = null;
+        boolean failFast = true;
+        String rollbackArg = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--targets" -> targetsFile = Path.of(args[++i]);
+                case "--parallel" -> parallel = Integer.parseInt(args[++i]);
+                case "--fail-fast" -> failFast = true;
+                case "--continue" -> failFast = false;
+                default -> {
+                    if (rollbackArg == null && !args[i].isBlank()) rollbackArg = args[i];
+                }
+            }
+        }
+        if (!List.of("update", "status", "rollback").contains(command)) {
+            log.error("Unknown command: {}", command);
+            return 4;
+        }
+        if ("rollback".equals(command) && rollbackArg == null) {
+            log.error("No rollback tag or count provided.");
+            return 3;
+        }
+
+        List<DatabaseTarget> targets;
+        try {
+            targets = readTargets(targetsFile);
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("Cannot read targets from {}: {}", targetsFile, e.getMessage());
+            return 2;
+        }
+        if (targets.isEmpty()) {
+            log.error("No targets in {}", targetsFile);
+            return 2;
+        }
+
+        int threads = Math.max(1, Math.min(targets.size(), parallel == null ? 8 : parallel));
+        log.info("Running '{}' on {} targets, {} at a time, {}", command, targets.size(), threads,
+                failFast ? "stopping at the first failure" : "continuing past failures");
+        long start = System.nanoTime();
+        List<Result> results = new MigrationOrchestrator(command, rollbackArg, threads, failFast).execute(targets);
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        printReport(results, wallMillis, System.out);
+        return results.stream().allMatch(r -> r.outcome() == Outcome.OK) ? 0 : 1;
+    }
+
+    static List<DatabaseTarget> readTargets(Path file) throws IOException {
+        List<DatabaseTarget> targets = new ArrayList<>();
+        int lineNo = 0;
+        for (String line : Files.readAllLines(file)) {
+            lineNo++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            String[] f = trimmed.split(",", -1);
+            if (f.length < 3) {
+                throw new IllegalArgumentException("line " + lineNo + ": expected name,dbType,url[,user,password,changelog]");
+            }
+            targets.add(DatabaseTarget.of(field(f, 0), field(f, 1), field(f, 2), field(f, 3), field(f, 4), field(f, 5)));
+        }
+        return targets;
+    }
+
+    private static String field(String[] fields, int idx) {
+        if (idx >= fields.length) return null;
+        Matcher m = ENV.matcher(fields[idx].strip());
+        StringBuilder sb = new StringBuilder();
+        while (m.find()) m.appendReplacement(sb, Matcher.quoteReplacement(System.getenv().getOrDefault(m.group(1), "")));
+        return m.appendTail(sb).toString();
+    }
+
+    List<Result> execute(List<DatabaseTarget> targets) {
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicInteger threadNo = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism,
+                r -> new Thread(r, "migrate-" + threadNo.incrementAndGet()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>(targets.size());
+            for (DatabaseTarget target : targets) {
+                futures.add(pool.submit(() -> {
+                    if (stop.get()) return new Result(target, Outcome.SKIPPED, -1, -1, 0, 0, "an earlier target failed");
+                    Result result = migrate(target);
+                    if (result.outcome() == Outcome.FAILED && failFast) stop.set(true);
+                    return result;
+                }));
+            }
+            List<Result> results = new ArrayList<>(targets.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new Result(targets.get(i), Outcome.FAILED, -1, -1, 0, 0, String.valueOf(e.getCause())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for migrations", e);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Result migrate(DatabaseTarget target) {
+        log.info("[{}] Connecting to {} ({})", target.name(), target.url(), target.dbType());
+        long start = System.nanoTime();
+        long connectMillis = 0;
+        int before = -1;
+        try {
+            Class.forName(target.driver());
+            Connection connection = DriverManager.getConnection(target.url(), target.user(), target.password());
+            connectMillis = (System.nanoTime() - start) / 1_000_000;
+            StatusCache statusCache = "rollback".equals(command) ? null : StatusCache.forChangelog(target.changelog());
+            if (statusCache != null) {
+                long checkStart = System.nanoTime();
+                if (statusCache.isUpToDate(connection, target.dbType())) {
+                    connection.close();
+                    long checkMillis = (System.nanoTime() - checkStart) / 1_000_000;
+                    log.info("[{}] Nothing pending (status cache, {} ms)", target.name(), checkMillis);
+                    return new Result(target, Outcome.OK, 0, 0, connectMillis, checkMillis, "up to date (status cache)");
+                }
+            }
+            ClassLoaderResourceAccessor resourceAccessor = new ClassLoaderResourceAccessor();
+            Database database;
+            try {
+                database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            } catch (Exception e) {
+                connection.close();
+                throw e;
+            }
+            // Closing Liquibase closes the database and with it the one connection used for every step below.
+            try (Liquibase liquibase = new Liquibase(target.changelog(), resourceAccessor, database)) {
+                long runStart = System.nanoTime();
+                int after;
+                String detail;
+                switch (command) {
+                    case "update" -> {
+                        before = pending(liquibase);
+                        if (before > 0) liquibase.update((String) null);
+                        after = pending(liquibase);
+                        detail = "applied " + (before - after);
+                        if (statusCache != null) statusCache.store(liquibase.getDatabaseChangeLog(), resourceAccessor);
+                    }
+                    case "status" -> {
+                        List<ChangeSet> unrun = liquibase.listUnrunChangeSets(new Contexts(), new LabelExpression());
+                        before = after = unrun.size();
+                        for (ChangeSet cs : unrun) log.info("[{}] pending {}", target.name(), cs);
+                        detail = before == 0 ? "up to date" : before + " pending";
+                        if (statusCache != null) statusCache.store(liquibase.getDatabaseChangeLog(), resourceAccessor);
+                    }
+                    default -> {
+                        before = pending(liquibase);
+                        int ranBefore = ran(database);
+                        if (rollbackArg.matches("\\d+")) {
+                            liquibase.rollback(Integer.parseInt(rollbackArg), (String) null);
+                        } else {
+                            liquibase.rollback(rollbackArg, (String) null);
+                        }
+                        after = pending(liquibase);
+                        detail = "rolled back " + (ranBefore - ran(database));
+                    }
+                }
+                long runMillis = (System.nanoTime() - runStart) / 1_000_000;
+                log.info("[{}] {} completed in {} ms: {}", target.name(), command, runMillis, detail);
+                return new Result(target, Outcome.OK, before, after, connectMillis, runMillis, detail);
+            }
+        } catch (Exception e) {
+            long elapsed = (System.nanoTime() - start) / 1_000_000 - connectMillis;
+            log.error("[{}] {} failed: {}", target.name(), command, e.getMessage(), e);
+            String detail = e instanceof ClassNotFoundException ? "JDBC driver not found: " + e.getMessage() : rootMessage(e);
+            return new Result(target, Outcome.FAILED, before, -1, connectMillis, elapsed, detail);
+        }
+    }
+
+    /** Liquibase wraps the useful message several times over; the report wants only the innermost one. */
+    private static String rootMessage(Throwable e) {
+        while (e.getCause() != null && e.getCause() != e) e = e.getCause();
+        return String.valueOf(e.getMessage());
+    }
+
+    private static int pending(Liquibase liquibase) throws Exception {
+        return liquibase.listUnrunChangeSets(new Contexts(), new LabelExpression()).size();
+    }
+
+    private static int ran(Database database) throws Exception {
+        return Scope.getCurrentScope().getSingleton(ChangeLogHistoryServiceFactory.class)
+                .getChangeLogService(database).getRanChangeSets().size();
+    }
+
+    static void printReport(List<Result> results, long wallMillis, PrintStream out) {
+        int nameWidth = Math.max(6, results.stream().mapToInt(r -> r.target().name().length()).max().orElse(0));
+        String row = "%-" + nameWidth + "s  %-10s  %-7s  %7s  %7s  %9s  %9s  %s%n";
+        out.println();
+        out.printf(row, "TARGET", "TYPE", "RESULT", "PENDING", "AFTER", "CONNECT", "RUN", "DETAIL");
+        long sumMillis = 0;
+        int ok = 0, failed = 0, skipped = 0;
+        for (Result r : results) {
+            out.printf(row, r.target().name(), r.target().dbType(), r.outcome(), count(r.pendingBefore()),
+                    count(r.pendingAfter()), r.connectMillis() + " ms", r.runMillis() + " ms", r.detail());
+            sumMillis += r.connectMillis() + r.runMillis();
+            switch (r.outcome()) {
+                case OK -> ok++;
+                case FAILED -> failed++;
+                case SKIPPED -> skipped++;
+            }
+        }
+        out.printf("%n%d ok, %d failed, %d skipped. Wall time %d ms, sum of target times %d ms.%n",
+                ok, failed, skipped, wallMillis, sumMillis);
+    }
+
+    private static String count(int n) {
+        return n < 0 ? "-" : String.valueOf(n);
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.liquibasecheck;
+
+import liquibase.ChecksumVersion;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import liquibase.resource.Resource;
+import liquibase.resource.ResourceAccessor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Answers "is anything pending?" without parsing the changelog, for readiness
+ * checks that run on every start.
+ *
+ * After a full Liquibase run, {@link #store} records the changelog's
+ * changesets with their checksums. It also records every resource they came
+ * from, plus everything under the master changelog's directory and the
+ * directories the changesets came from, and a SHA-256 over those resources
+ * and the directory listings. {@link #isUpToDate} re-hashes the same
+ * resources and lists the same directories again straight from the
+ * classpath, so a file added to an {@code includeAll} directory also
+ * invalidates the cache. If the hash still matches, it compares the
+ * cached changesets with one {@code SELECT} from DATABASECHANGELOG. It
+ * returns true only when every changeset that applies to the database is
+ * recorded there with the same checksum. Anything else returns false and
+ * the caller takes the normal Liquibase path: a changed resource, a runAlways
+ * changeset, a missing table, a checksum from another Liquibase version. So a
+ * stale or missing cache costs time, never a wrong answer.
+ *
+ * The cache lives in {@code $STATUS_CACHE_DIR} (default
+ * ~/.cache/liquibase-check), one file per changelog. Point it at a volume
+ * that survives restarts to benefit on pod start. {@code STATUS_CACHE=off}
+ * disables it.
+ */
+public class StatusCache {
+    private static final Logger log = LoggerFactory.getLogger(StatusCache.class);
+
+    /** A changeset as cached: its DATABASECHANGELOG key, checksum and what decides whether it applies. */
+    record Entry(String filename, String id, String author, String checksum, String dbms, boolean alwaysRun) {
+        String key() {
+            return filename + "::" + id + "::" + author;
+        }
+    }
+
+    private final String changelog;
+    private final Path file;
+
+    StatusCache(String changelog, Path file) {
+        this.changelog = changelog;
+        this.file = file;
+    }
+
+    /** Returns null when the cache is turned off. */
+    public static StatusCache forChangelog(String changelog) {
+        if ("off".equalsIgnoreCase(System.getenv("STATUS_CACHE"))) return null;
+        String dir = System.getenv("STATUS_CACHE_DIR");
+        Path base = dir != null && !dir.isBlank() ? Path.of(dir)
+                : Path.of(System.getProperty("user.home"), ".cache", "liquibase-check");
+        return new StatusCache(changelog, base.resolve(changelog.replaceAll("[^A-Za-z0-9._-]", "_") + ".status"));
+    }
+
+    /** True only if nothing in the changelog is pending for this database. Never throws. */
+    public boolean isUpToDate(Connection connection, String dbType) {
+        try {
+            if (!Files.exists(file)) {
+                log.debug("No status cache at {}", file);
+                return false;
+            }
+            List<String> resources = new ArrayList<>();
+            List<String> dirs = new ArrayList<>();
+            List<Entry> entries = new ArrayList<>();
+            String hash = null;
+            for (String line : Files.readAllLines(file)) {
+                String[] f = line.split("\t", -1);
+                switch (f[0]) {
+                    case "hash" -> hash = f[1];
+                    case "resource" -> resources.add(f[1]);
+                    case "listing" -> dirs.add(f[1]);
+                    case "changeset" -> entries.add(new Entry(f[1], f[2], f[3], f[4], f[5], Boolean.parseBoolean(f[6])));
+                    default -> { }
+                }
+            }
+            String current;
+            try (ClassLoaderResourceAccessor accessor = new ClassLoaderResourceAccessor()) {
+                current = hash(resources, listings(dirs, accessor));
+            }
+            if (!current.equals(hash)) {
+                log.info("Changelog resources changed since the status cache was written");
+                return false;
+            }
+
+            Map<String, String> ran = new HashMap<>();
+            try (Statement st = connection.createStatement();
+                 ResultSet rs = st.executeQuery("SELECT FILENAME, ID, AUTHOR, MD5SUM FROM DATABASECHANGELOG")) {
+                while (rs.next()) ran.put(rs.getString(1) + "::" + rs.getString(2) + "::" + rs.getString(3), rs.getString(4));
+            }
+            for (Entry e : entries) {
+                if (!appliesTo(e.dbms(), dbType)) continue;
+                if (e.alwaysRun() || !e.checksum().equals(ran.get(e.key()))) {
+                    log.debug("Changeset {} is pending or changed", e.key());
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            log.debug("Status cache check failed, falling back to Liquibase: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /** Records the parsed changelog. Failures are logged, never thrown: the cache is an optimisation. */
+    public void store(DatabaseChangeLog changeLog, ResourceAccessor accessor) {
+        try {
+            Set<String> resources = new TreeSet<>();
+            Set<String> dirs = new TreeSet<>();
+            resources.add(changelog);
+            addParent(dirs, changelog);
+            StringBuilder sb = new StringBuilder();
+            for (ChangeSet cs : changeLog.getChangeSets()) {
+                resources.add(cs.getFilePath());
+                addParent(dirs, cs.getFilePath());
+                if (cs.isIgnore()) continue;
+                sb.append(String.join("\t", "changeset", cs.getStoredFilePath(), cs.getId(), cs.getAuthor(),
+                        cs.generateCheckSum(ChecksumVersion.latest()).toString(),
+                        cs.getDbmsSet() == null ? "" : String.join(",", cs.getDbmsSet()),
+                        String.valueOf(cs.isAlwaysRun()))).append('\n');
+            }
+            // A directory inside another one is already covered by its recursive listing.
+            dirs.removeIf(d -> dirs.stream().anyMatch(o -> d.startsWith(o + "/")));
+            SortedMap<String, List<String>> listings = listings(dirs, accessor);
+            listings.values().forEach(resources::addAll);
+            StringBuilder out = new StringBuilder("# liquibase-check status cache for " + changelog + "\n");
+            out.append("hash\t").append(hash(new ArrayList<>(resources), listings)).append('\n');
+            for (String d : dirs) out.append("listing\t").append(d).append('\n');
+            for (String r : resources) out.append("resource\t").append(r).append('\n');
+            out.append(sb);
+
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.writeString(tmp, out, StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote status cache {} ({} resources)", file, resources.size());
+        } catch (Exception e) {
+            log.warn("Could not write status cache {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static void addParent(Set<String> dirs, String path) {
+        int slash = path.lastIndexOf('/');
+        if (slash > 0) dirs.add(path.substring(0, slash));
+    }
+
+    /** Every resource path under each directory, recursively and sorted. */
+    private static SortedMap<String, List<String>> listings(Collection<String> dirs, ResourceAccessor accessor)
+            throws IOException {
+        SortedMap<String, List<String>> listings = new TreeMap<>();
+        for (String dir : dirs) {
+            List<String> paths = new ArrayList<>();
+            for (Resource r : accessor.search(dir, true)) paths.add(r.getPath());
+            paths.sort(null);
+            listings.put(dir, paths);
+        }
+        return listings;
+    }
+
+    /**
+     * SHA-256 over each directory listing, then each resource's path and
+     * bytes, read from the classpath as Liquibase would.
+     */
+    private static String hash(List<String> resources, SortedMap<String, List<String>> listings) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Map.Entry<String, List<String>> listing : listings.entrySet()) {
+            digest.update(listing.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 1);
+            for (String path : listing.getValue()) {
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        ClassLoader loader = StatusCache.class.getClassLoader();
+        for (String resource : resources) {
+            try (InputStream in = loader.getResourceAsStream(resource)) {
+                if (in == null) throw new IOException("Resource no longer on the classpath: " + resource);
+                digest.update(resource.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(in.readAllBytes());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** Liquibase's dbms rules: empty or "all" applies everywhere, "none" nowhere, "!x" excludes x. */
+    static boolean appliesTo(String dbms, String dbType) {
+        if (dbms.isBlank()) return true;
+        boolean anyPositive = false;
+        for (String d : dbms.split(",")) {
+            String t = d.strip().toLowerCase();
+            if (t.equals("none")) return false;
+            if (t.equals("all")) return true;
+            if (t.startsWith("!")) {
+                if (t.substring(1).equals(dbType)) return false;
+            } else {
+                anyPositive = true;
+                if (t.equals(dbType)) return true;
+            }
+        }
+        return !anyPositive;
+    }
+}
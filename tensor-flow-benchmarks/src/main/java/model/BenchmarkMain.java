@@ -0,0 +1,30 @@
+package model;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Takes the usual JMH command line and always
+ * adds the GC profiler, so every result carries gc.alloc.rate.norm (bytes
+ * allocated per operation) next to its time.
+ *
+ * Usage:
+ *   mvn -pl tensor-flow-benchmarks -am package
+ *   java -jar tensor-flow-benchmarks/target/benchmarks.jar                 # everything
+ *   java -jar tensor-flow-benchmarks/target/benchmarks.jar TensorCopy -p batch=4096
+ *   java -jar tensor-flow-benchmarks/target/benchmarks.jar -l              # list
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListProfilers() || cli.shouldListResultFormats()
+                || cli.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+    }
+}
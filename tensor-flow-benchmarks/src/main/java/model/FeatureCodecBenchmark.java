@@ -0,0 +1,126 @@
+package model;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding a stream of length-delimited PredictionRequests into float[]
+ * features, and encoding PredictionResponses, with the generated classes
+ * versus FeatureCodec. Each invocation handles {@value #MESSAGES} messages
+ * through one stream, as a server connection does. Times and
+ * gc.alloc.rate.norm are per message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeatureCodecBenchmark {
+
+    static final int MESSAGES = 1024;
+
+    @Param({"6", "64"})
+    public int features;
+
+    private byte[] requests;
+    private float[] packed;
+    private float[] results;
+    private final FeatureBuffer buffer = new FeatureBuffer();
+    private byte[] responses;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int m = 0; m < MESSAGES; m++) {
+            PredictionRequest.Builder builder = PredictionRequest.newBuilder();
+            for (int j = 0; j < features; j++) builder.addFeatures(random.nextFloat() * 100f);
+            builder.build().writeDelimitedTo(out);
+        }
+        requests = out.toByteArray();
+        packed = new float[features];
+        results = new float[MESSAGES];
+        for (int m = 0; m < MESSAGES; m++) results[m] = 1f + random.nextFloat();
+        responses = new byte[MESSAGES * 8];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public float decodeGeneratedBoxed() throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(requests);
+        float checksum = 0f;
+        while (!in.isAtEnd()) {
+            int limit = in.pushLimit(in.readRawVarint32());
+            PredictionRequest request = PredictionRequest.parseFrom(in);
+            in.popLimit(limit);
+            double[] asDouble = request.getFeaturesList().stream().mapToDouble(f -> f).toArray();
+            for (int j = 0; j < asDouble.length; j++) packed[j] = (float) asDouble[j];
+            checksum += packed[0];
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public float decodeGeneratedIndexed() throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(requests);
+        float checksum = 0f;
+        while (!in.isAtEnd()) {
+            int limit = in.pushLimit(in.readRawVarint32());
+            PredictionRequest request = PredictionRequest.parseFrom(in);
+            in.popLimit(limit);
+            for (int j = 0; j < request.getFeaturesCount(); j++) packed[j] = request.getFeatures(j);
+            checksum += packed[0];
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public float decodeCodec() throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(requests);
+        float checksum = 0f;
+        while (FeatureCodec.readDelimitedRequest(in, buffer)) {
+            checksum += buffer.values()[0];
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int encodeGenerated() throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(responses);
+        for (float result : results) {
+            PredictionResponse response = PredictionResponse.newBuilder().setResult(result).build();
+            out.writeUInt32NoTag(response.getSerializedSize());
+            response.writeTo(out);
+        }
+        return out.spaceLeft();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MESSAGES)
+    public int encodeCodec() throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(responses);
+        for (float result : results) FeatureCodec.writeDelimitedResponse(out, result);
+        return out.spaceLeft();
+    }
+}
@@ -0,0 +1,88 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building a PredictionRequest and getting its features back out as float[].
+ *
+ * streamToDoubleThenFloat is what TensorFlowPredictionModel does
+ * (getFeaturesList().stream().mapToDouble(...) then a narrowing loop). It
+ * boxes every Float and allocates an intermediate double[].
+ * indexedGetFeatures reads the primitive repeated field directly, as
+ * BatchPredictionEngine and MicroBatcher do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FeatureExtractionBenchmark {
+
+    @Param({"6", "64", "512"})
+    public int features;
+
+    private float[] values;
+    private List<Float> boxed;
+    private PredictionRequest request;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new float[features];
+        boxed = new ArrayList<>(features);
+        for (int i = 0; i < features; i++) {
+            values[i] = random.nextFloat() * 100f;
+            boxed.add(values[i]);
+        }
+        request = buildWithAddFeatures();
+    }
+
+    @Benchmark
+    public PredictionRequest buildWithAddFeatures() {
+        PredictionRequest.Builder builder = PredictionRequest.newBuilder();
+        for (float f : values) builder.addFeatures(f);
+        return builder.build();
+    }
+
+    @Benchmark
+    public PredictionRequest buildWithAddAllBoxed() {
+        return PredictionRequest.newBuilder().addAllFeatures(boxed).build();
+    }
+
+    @Benchmark
+    public float[] streamToDoubleThenFloat() {
+        double[] asDouble = request.getFeaturesList().stream().mapToDouble(f -> f).toArray();
+        float[] out = new float[asDouble.length];
+        for (int i = 0; i < asDouble.length; i++) out[i] = (float) asDouble[i];
+        return out;
+    }
+
+    @Benchmark
+    public float[] indexedGetFeatures() {
+        int n = request.getFeaturesCount();
+        float[] out = new float[n];
+        for (int i = 0; i < n; i++) out[i] = request.getFeatures(i);
+        return out;
+    }
+
+    @Benchmark
+    public PredictionRequest parseFromBytes() throws Exception {
+        return PredictionRequest.parseFrom(request.toByteArray());
+    }
+}
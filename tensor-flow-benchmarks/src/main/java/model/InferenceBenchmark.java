@@ -0,0 +1,90 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring a batch of linear-model predictions.
+ *
+ * scalarLoop is the plain Java weighted sum, the floor for a linear model.
+ * enginePacked feeds a pre-packed float[]. engineRequests also pays for
+ * packing PredictionRequests and building PredictionResponses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InferenceBenchmark {
+
+    @Param({"1", "64", "4096"})
+    public int batch;
+
+    @Param({"6", "64"})
+    public int features;
+
+    private float[] weights;
+    private float[] packed;
+    private float[] scores;
+    private List<PredictionRequest> requests;
+    private BatchPredictionEngine engine;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        weights = new float[features];
+        for (int j = 0; j < features; j++) weights[j] = random.nextFloat();
+        packed = new float[batch * features];
+        for (int i = 0; i < packed.length; i++) packed[i] = random.nextFloat() * 100f;
+        scores = new float[batch];
+        requests = new ArrayList<>(batch);
+        for (int r = 0; r < batch; r++) {
+            PredictionRequest.Builder builder = PredictionRequest.newBuilder();
+            for (int j = 0; j < features; j++) builder.addFeatures(packed[r * features + j]);
+            requests.add(builder.build());
+        }
+        engine = new BatchPredictionEngine(weights, 0.1f);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Benchmark
+    public float[] scalarLoop() {
+        for (int r = 0; r < batch; r++) {
+            float sum = 0.1f;
+            for (int j = 0; j < features; j++) sum += packed[r * features + j] * weights[j];
+            scores[r] = sum;
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public float[] enginePacked() {
+        engine.predict(packed, batch, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public List<PredictionResponse> engineRequests() {
+        return engine.predict(requests);
+    }
+}
@@ -0,0 +1,39 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tensorflow.EagerSession;
+import org.tensorflow.Graph;
+import org.tensorflow.Session;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed costs a per-request design pays: an EagerSession, which the old
+ * prediction models created for every prediction, or a Graph plus Session,
+ * which BatchPredictionEngine creates once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionCreateBenchmark {
+
+    @Benchmark
+    public void eagerSession() {
+        EagerSession.create().close();
+    }
+
+    @Benchmark
+    public void graphAndSession() {
+        try (Graph graph = new Graph()) {
+            new Session(graph).close();
+        }
+    }
+}
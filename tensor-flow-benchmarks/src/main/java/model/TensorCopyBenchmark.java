@@ -0,0 +1,93 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tensorflow.ndarray.Shape;
+import org.tensorflow.ndarray.buffer.DataBuffers;
+import org.tensorflow.types.TFloat32;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving a [batch, features] float matrix into and out of a TFloat32.
+ *
+ * The *ElementWise variants use setFloat/getFloat per element, as
+ * TensorFlowPredictionModel does. The *Bulk variants use one DataBuffer
+ * copy, as BatchPredictionEngine does. Tensor allocation is
+ * included in the "in" benchmarks because callers pay it on every request;
+ * the "out" benchmarks read from a tensor allocated once in setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TensorCopyBenchmark {
+
+    @Param({"1", "64", "4096"})
+    public int batch;
+
+    @Param({"6", "64"})
+    public int features;
+
+    private float[] values;
+    private float[] out;
+    private TFloat32 filled;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        values = new float[batch * features];
+        for (int i = 0; i < values.length; i++) values[i] = random.nextFloat();
+        out = new float[values.length];
+        filled = TFloat32.tensorOf(Shape.of(batch, features), DataBuffers.of(values, true, false));
+    }
+
+    @TearDown
+    public void tearDown() {
+        filled.close();
+    }
+
+    @Benchmark
+    public float inElementWise() {
+        try (TFloat32 tensor = TFloat32.tensorOf(Shape.of(batch, features))) {
+            for (int r = 0; r < batch; r++) {
+                for (int c = 0; c < features; c++) tensor.setFloat(values[r * features + c], r, c);
+            }
+            return tensor.getFloat(0, 0);
+        }
+    }
+
+    @Benchmark
+    public float inBulk() {
+        try (TFloat32 tensor = TFloat32.tensorOf(Shape.of(batch, features), DataBuffers.of(values, true, false))) {
+            return tensor.getFloat(0, 0);
+        }
+    }
+
+    @Benchmark
+    public float[] outElementWise() {
+        for (int r = 0; r < batch; r++) {
+            for (int c = 0; c < features; c++) out[r * features + c] = filled.getFloat(r, c);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public float[] outBulk() {
+        filled.copyTo(DataBuffers.of(out, false, false));
+        return out;
+    }
+}
@@ -0,0 +1,78 @@
+package model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One TensorFlowAstroModelTrainer epoch over a generated CSV file, including
+ * graph construction, at several mini-batch and feature sizes. Time per
+ * operation divided by {@code rows} is the per-sample training cost; the
+ * allocation rate shows what CSV parsing costs next to the graph runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TrainerEpochBenchmark {
+
+    @Param({"64", "1024"})
+    public int batchSize;
+
+    @Param({"6", "32"})
+    public int features;
+
+    @Param({"20000"})
+    public int rows;
+
+    private Path data;
+    private TensorFlowAstroModelTrainer.Stats stats;
+
+    @Setup
+    public void setUp() throws IOException {
+        data = Files.createTempFile("trainer-epoch-", ".csv");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(data)) {
+            for (int r = 0; r < rows; r++) {
+                float target = 0f;
+                for (int j = 0; j < features; j++) {
+                    float value = random.nextInt(1000) / 10f;
+                    target += value * (j + 1) / 100f;
+                    writer.write(Float.toString(value));
+                    writer.write(',');
+                }
+                writer.write(Float.toString(target));
+                writer.write('\n');
+            }
+        }
+        stats = TensorFlowAstroModelTrainer.Stats.of(data);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(data);
+    }
+
+    @Benchmark
+    public LinearModelWeights epoch() throws IOException {
+        return TensorFlowAstroModelTrainer.train(data, stats, 1, batchSize, 0.1f, false);
+    }
+}
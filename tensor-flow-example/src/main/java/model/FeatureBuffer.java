@@ -0,0 +1,49 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * A growable float[] that {@link FeatureCodec} decodes features into. Meant
+ * to be kept and reused per connection or thread: after the first few
+ * requests it has reached its working size and decoding allocates nothing.
+ */
+public class FeatureBuffer {
+
+    private float[] values;
+    private int size;
+
+    public FeatureBuffer() {
+        this(16);
+    }
+
+    public FeatureBuffer(int initialCapacity) {
+        this.values = new float[Math.max(1, initialCapacity)];
+    }
+
+    /** Backing array; only the first {@link #size()} entries are meaningful. */
+    public float[] values() {
+        return values;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(float value) {
+        ensureCapacity(size + 1);
+        values[size++] = value;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > values.length) values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+    }
+
+    /** For the codec, which appends after {@link #ensureCapacity}. */
+    void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+
+/**
+ * Reads PredictionRequest and writes PredictionResponse directly on the wire
+ * format, for the prediction hot path.
+ *
+ * The generated classes cost, per request, a message object, its
+ * FloatArrayList and a builder for the response. Callers that then use
+ * getFeaturesList() also box every Float. Here the packed
+ * {@code repeated float features = 1} field is decoded from a
+ * CodedInputStream straight into a reusable {@link FeatureBuffer}, and a
+ * response is written as tag and fixed32 with no message object at all. The
+ * bytes are the same as the generated code reads and writes, so either side
+ * of a connection can use either implementation.
+ */
+public final class FeatureCodec {
+
+    /** Most features a request may carry; far above any model, small enough to bound the buffer. */
+    public static final int MAX_FEATURES = 1 << 16;
+
+    // WireFormat.makeTag is package-private: a tag is (field number << 3) | wire type.
+    private static final int PACKED_FEATURES =
+            PredictionRequest.FEATURES_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+    private static final int SINGLE_FEATURE =
+            PredictionRequest.FEATURES_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_FIXED32;
+    private static final int RESULT_SIZE = CodedOutputStream.computeFloatSize(PredictionResponse.RESULT_FIELD_NUMBER, 0f);
+
+    private FeatureCodec() {
+    }
+
+    /**
+     * Reads one length-delimited PredictionRequest, as written by
+     * writeDelimitedTo, into {@code out}. Returns false at a clean end of
+     * stream.
+     */
+    public static boolean readDelimitedRequest(CodedInputStream in, FeatureBuffer out) throws IOException {
+        if (in.isAtEnd()) return false;
+        int limit = in.pushLimit(in.readRawVarint32());
+        readRequest(in, out);
+        in.popLimit(limit);
+        // Long-lived connections would otherwise hit the stream's total size limit.
+        in.resetSizeCounter();
+        return true;
+    }
+
+    /**
+     * Reads a PredictionRequest up to the current limit or end of input. A
+     * packed field longer than the bytes left in the message, or more than
+     * {@link #MAX_FEATURES} features, is rejected before anything is allocated.
+     */
+    public static void readRequest(CodedInputStream in, FeatureBuffer out) throws IOException {
+        out.clear();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            if (tag == PACKED_FEATURES) {
+                int length = in.readRawVarint32();
+                int remaining = in.getBytesUntilLimit();
+                if (length < 0 || length % Float.BYTES != 0 || (remaining >= 0 && length > remaining)) {
+                    throw new InvalidProtocolBufferException("Packed float field of " + length + " bytes");
+                }
+                int size = out.size();
+                int count = length / Float.BYTES;
+                if (count > MAX_FEATURES - size) throw tooManyFeatures();
+                out.ensureCapacity(size + count);
+                float[] values = out.values();
+                for (int i = 0; i < count; i++) values[size + i] = Float.intBitsToFloat(in.readRawLittleEndian32());
+                out.setSize(size + count);
+            } else if (tag == SINGLE_FEATURE) {
+                // Unpacked encoding; legal for parsers to accept.
+                if (out.size() == MAX_FEATURES) throw tooManyFeatures();
+                out.add(in.readFloat());
+            } else if (!in.skipField(tag)) {
+                return;
+            }
+        }
+    }
+
+    private static InvalidProtocolBufferException tooManyFeatures() {
+        return new InvalidProtocolBufferException("More than " + MAX_FEATURES + " features");
+    }
+
+    /** Same bytes as {@code PredictionResponse.newBuilder().setResult(result).build().writeDelimitedTo(out)}. */
+    public static void writeDelimitedResponse(CodedOutputStream out, float result) throws IOException {
+        if (Float.floatToRawIntBits(result) == 0) {
+            out.writeUInt32NoTag(0); // proto3 omits a default value; the message is empty
+            return;
+        }
+        out.writeUInt32NoTag(RESULT_SIZE);
+        out.writeFloat(PredictionResponse.RESULT_FIELD_NUMBER, result);
+    }
+
+    /** Error responses are off the hot path and may allocate. */
+    public static void writeDelimitedError(CodedOutputStream out, String error) throws IOException {
+        out.writeUInt32NoTag(CodedOutputStream.computeStringSize(PredictionResponse.ERROR_FIELD_NUMBER, error));
+        out.writeString(PredictionResponse.ERROR_FIELD_NUMBER, error);
+    }
+}
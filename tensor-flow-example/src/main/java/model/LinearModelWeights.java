@@ -0,0 +1,80 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Weights and bias of a linear model over raw (unnormalized) features, as
+ * written by {@link TensorFlowAstroModelTrainer} and read by the prediction
+ * models, either as a single file or as versions in a {@link ModelStore}.
+ *
+ * File layout (big-endian): int magic "LMW1", int featureCount,
+ * featureCount floats of weights, float bias.
+ */
+public record LinearModelWeights(float[] weights, float bias) {
+
+    static final int MAGIC = 0x4C4D5731; // "LMW1"
+    static final int HEADER_BYTES = 8;
+
+    public LinearModelWeights {
+        weights = weights.clone();
+    }
+
+    @Override
+    public float[] weights() {
+        return weights.clone();
+    }
+
+    public int featureCount() {
+        return weights.length;
+    }
+
+    /** Writes to a temp file next to {@code file} and renames it, so readers never see a partial file. */
+    public void save(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(weights.length);
+            for (float w : weights) out.writeFloat(w);
+            out.writeFloat(bias);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads the file through a read-only mapping: no stream parsing, and
+     * processes loading the same version share its page-cache pages.
+     */
+    public static LinearModelWeights load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException(file + " is too short for a linear model weights file");
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (mapped.getInt(0) != MAGIC) throw new IOException(file + " is not a linear model weights file");
+            int n = mapped.getInt(4);
+            if (n <= 0 || size != HEADER_BYTES + (n + 1L) * Float.BYTES) {
+                throw new IOException(file + " declares " + n + " features but is " + size + " bytes");
+            }
+            FloatBuffer values = mapped.position(HEADER_BYTES).asFloatBuffer();
+            float[] weights = new float[n];
+            values.get(weights);
+            return new LinearModelWeights(weights, values.get());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LinearModelWeights[weights=" + Arrays.toString(weights) + ", bias=" + bias + "]";
+    }
+}
@@ -0,0 +1,109 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The model a server is currently scoring with, replaceable while it runs.
+ *
+ * {@link #swap} builds the new engine first, then publishes it with one
+ * atomic reference swap; nothing waits on a lock. Callers score through a
+ * {@link Lease}. An engine is only closed once the last lease taken before
+ * the swap is released, so in-flight batches finish on the model they
+ * started with.
+ */
+public class LiveModel implements AutoCloseable {
+
+    /** A reference-counted engine; the model holds one reference itself until it is replaced. */
+    public static final class Lease implements AutoCloseable {
+        private final BatchPredictionEngine engine;
+        private final int version;
+        private final AtomicInteger refs = new AtomicInteger(1);
+
+        private Lease(BatchPredictionEngine engine, int version) {
+            this.engine = engine;
+            this.version = version;
+        }
+
+        public BatchPredictionEngine engine() {
+            return engine;
+        }
+
+        public int version() {
+            return version;
+        }
+
+        private boolean retain() {
+            for (int r = refs.get(); r > 0; r = refs.get()) {
+                if (refs.compareAndSet(r, r + 1)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void close() {
+            if (refs.decrementAndGet() == 0) engine.close();
+        }
+    }
+
+    private final int maxBatch;
+    private final AtomicReference<Lease> current = new AtomicReference<>();
+    private Closeable watcher;
+
+    public LiveModel(LinearModelWeights weights, int version, int maxBatch) {
+        this.maxBatch = maxBatch;
+        swap(weights, version);
+    }
+
+    /** Serves the store's current version and follows CURRENT as it changes. */
+    public static LiveModel watching(ModelStore store, int maxBatch) throws IOException {
+        int version = store.currentVersion().orElseThrow(() -> new IOException("No current model in " + store.dir()));
+        LiveModel model = new LiveModel(store.load(version), version, maxBatch);
+        model.watcher = store.watch(version, v -> {
+            try {
+                long start = System.nanoTime();
+                model.swap(store.load(v), v);
+                System.out.printf("Switched to model version %d in %.1f ms%n", v, (System.nanoTime() - start) / 1e6);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Keeping version " + model.version() + ", cannot load " + v + ": " + e.getMessage());
+            }
+        });
+        return model;
+    }
+
+    public void swap(LinearModelWeights weights, int version) {
+        Lease next = new Lease(new BatchPredictionEngine(weights.weights(), weights.bias(), maxBatch), version);
+        Lease previous = current.getAndSet(next);
+        if (previous != null) previous.close();
+    }
+
+    /** The current engine, guaranteed open until the lease is closed. */
+    public Lease acquire() {
+        while (true) {
+            Lease lease = current.get();
+            if (lease == null) throw new IllegalStateException("Model is closed");
+            if (lease.retain()) return lease;
+        }
+    }
+
+    public int featureCount() {
+        try (Lease lease = acquire()) {
+            return lease.engine().featureCount();
+        }
+    }
+
+    public int version() {
+        try (Lease lease = acquire()) {
+            return lease.version();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) watcher.close();
+        Lease last = current.getAndSet(null);
+        if (last != null) last.close();
+    }
+}
@@ -0,0 +1,212 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces concurrent single requests into one {@link BatchPredictionEngine}
+ * call on the current engine of a {@link LiveModel}. One dispatcher thread
+ * takes the first queued request, then waits at most {@code window} for more
+ * (up to {@code maxBatch}) before scoring them together. A lone request
+ * therefore waits at most one window. Under load the queue is never empty,
+ * so batches fill without waiting.
+ *
+ * Requests travel as {@link Slot}s. A connection keeps one {@link
+ * BlockingSlot} and reuses it for every request it sends through {@link
+ * #call}, so the steady-state path allocates nothing on the Java side. The
+ * batch arrays are reused too, and only grow if a hot-swapped model has more
+ * features. {@link #submit(PredictionRequest)} is the convenient, allocating
+ * form. The queue is bounded: when it is full, a request fails fast rather
+ * than letting latency grow without limit.
+ */
+public class MicroBatcher implements AutoCloseable {
+
+    private static final String SHUTTING_DOWN = "Prediction server is shutting down";
+
+    /** Features of one request and where its outcome goes. */
+    public abstract static class Slot extends FeatureBuffer {
+        protected abstract void complete(float result);
+
+        protected abstract void fail(String error);
+    }
+
+    /** A reusable slot its owner thread waits on. One request in flight at a time. */
+    public static final class BlockingSlot extends Slot {
+        private volatile boolean done;
+        private volatile Thread waiter;
+        private float result;
+        private String error;
+
+        /** Valid after {@link #call} returns; null on success. */
+        public String error() {
+            return error;
+        }
+
+        public float result() {
+            return result;
+        }
+
+        @Override
+        protected void complete(float result) {
+            this.result = result;
+            this.error = null;
+            release();
+        }
+
+        @Override
+        protected void fail(String error) {
+            this.error = error;
+            release();
+        }
+
+        private void release() {
+            done = true;
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private static final class FutureSlot extends Slot {
+        final CompletableFuture<PredictionResponse> future = new CompletableFuture<>();
+
+        @Override
+        protected void complete(float result) {
+            future.complete(PredictionResponse.newBuilder().setResult(result).build());
+        }
+
+        @Override
+        protected void fail(String error) {
+            future.complete(PredictionResponse.newBuilder().setError(error).build());
+        }
+    }
+
+    private final LiveModel model;
+    private final int maxBatch;
+    private final long windowNanos;
+    private final BlockingQueue<Slot> queue;
+    private final Thread dispatcher;
+    private float[] features;
+    private final float[] scores;
+    private volatile boolean running = true;
+
+    public MicroBatcher(LiveModel model, int maxBatch, long windowMicros, int queueCapacity) {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be positive");
+        this.model = model;
+        this.maxBatch = maxBatch;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.features = new float[maxBatch * model.featureCount()];
+        this.scores = new float[maxBatch];
+        this.dispatcher = new Thread(this::dispatch, "prediction-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Scores the slot's features and blocks until its result or error is set.
+     * If the caller is interrupted while the slot is still queued, the slot is
+     * withdrawn and fails. Once the dispatcher has taken it, it always
+     * completes, so the call waits for that and then restores the interrupt;
+     * failing it early would let a late result land in the reused slot.
+     */
+    public void call(BlockingSlot slot) {
+        slot.done = false;
+        slot.waiter = Thread.currentThread();
+        if (!enqueue(slot)) return;
+        boolean interrupted = false;
+        while (!slot.done) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                interrupted = true;
+                if (queue.remove(slot)) slot.fail(running ? "Prediction was interrupted" : SHUTTING_DOWN);
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /** Never completes exceptionally; failures are responses with the error field set. */
+    public CompletableFuture<PredictionResponse> submit(PredictionRequest request) {
+        FutureSlot slot = new FutureSlot();
+        for (int i = 0; i < request.getFeaturesCount(); i++) slot.add(request.getFeatures(i));
+        enqueue(slot);
+        return slot.future;
+    }
+
+    private boolean enqueue(Slot slot) {
+        if (running && queue.offer(slot)) {
+            // If close() came in between, the dispatcher's final drain may already be over.
+            // Whichever of that drain and this remove gets the slot fails it.
+            if (running || !queue.remove(slot)) return true;
+        }
+        slot.fail(running ? "Prediction queue is full" : SHUTTING_DOWN);
+        return false;
+    }
+
+    private void dispatch() {
+        List<Slot> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatch) {
+                    Slot next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) break;
+                    }
+                    batch.add(next);
+                }
+                score(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+                for (Slot s : batch) s.fail(SHUTTING_DOWN);
+            } catch (RuntimeException e) {
+                // Only reachable before score() completed anything (e.g. the model was closed).
+                for (Slot s : batch) s.fail(String.valueOf(e.getMessage()));
+            } finally {
+                batch.clear();
+            }
+        }
+        for (Slot s; (s = queue.poll()) != null; ) s.fail(SHUTTING_DOWN);
+    }
+
+    private void score(List<Slot> batch) {
+        try (LiveModel.Lease lease = model.acquire()) {
+            BatchPredictionEngine engine = lease.engine();
+            int n = engine.featureCount();
+            if (features.length < batch.size() * n) features = new float[maxBatch * n];
+            // Checked here, against the model actually used, since a swap may change the feature count.
+            int rows = 0;
+            for (int r = 0; r < batch.size(); r++) {
+                Slot slot = batch.get(r);
+                if (slot.size() != n) {
+                    slot.fail("Expected " + n + " features, got " + slot.size());
+                    continue;
+                }
+                System.arraycopy(slot.values(), 0, features, rows * n, n);
+                batch.set(rows++, slot);
+            }
+            if (rows == 0) return;
+            try {
+                engine.predict(features, rows, scores);
+            } catch (RuntimeException e) {
+                // Fail only the rows still waiting; the others are done and may already be reused.
+                for (int r = 0; r < rows; r++) batch.get(r).fail(String.valueOf(e.getMessage()));
+                return;
+            }
+            for (int r = 0; r < rows; r++) batch.get(r).complete(scores[r]);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join();
+    }
+}
@@ -0,0 +1,176 @@
+package model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Directory of model versions:
+ *
+ *   v000001.lmw, v000002.lmw, ...  immutable LinearModelWeights files
+ *   CURRENT                        the active version number
+ *   HISTORY                        one line per publish/activate/rollback
+ *
+ * A published version is never rewritten, so readers holding a mapping of
+ * it are never disturbed. Switching versions only replaces CURRENT through an
+ * atomic rename; {@link #watch} turns that rename into a callback, which is
+ * how {@link LiveModel} hot-swaps the served model. Rolling back is just
+ * activating an older file.
+ *
+ * One writer (the trainer or this class's CLI) at a time is assumed.
+ *
+ * Usage:
+ *   java model.ModelStore <dir> list | activate <version> | rollback
+ */
+public final class ModelStore {
+
+    private static final Pattern VERSION_FILE = Pattern.compile("v(\\d{6})\\.lmw");
+    private static final String CURRENT = "CURRENT";
+    private static final String HISTORY = "HISTORY";
+
+    private final Path dir;
+
+    public ModelStore(Path dir) throws IOException {
+        this.dir = Files.createDirectories(dir);
+    }
+
+    public Path dir() {
+        return dir;
+    }
+
+    /** Writes the weights as the next version and makes it current. */
+    public synchronized int publish(LinearModelWeights weights) throws IOException {
+        List<Integer> versions = versions();
+        int version = versions.isEmpty() ? 1 : versions.get(versions.size() - 1) + 1;
+        weights.save(fileFor(version));
+        writeCurrent(version, "publish");
+        return version;
+    }
+
+    public synchronized void activate(int version) throws IOException {
+        if (!Files.exists(fileFor(version))) throw new IOException("No model version " + version + " in " + dir);
+        writeCurrent(version, "activate");
+    }
+
+    /** Makes the newest version older than the current one current, and returns it. */
+    public synchronized int rollback() throws IOException {
+        int current = currentVersion().orElseThrow(() -> new IOException("No current model in " + dir));
+        int previous = versions().stream().filter(v -> v < current).reduce((a, b) -> b)
+                .orElseThrow(() -> new IOException("Version " + current + " is the oldest in " + dir));
+        writeCurrent(previous, "rollback");
+        return previous;
+    }
+
+    public List<Integer> versions() throws IOException {
+        List<Integer> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "v*.lmw")) {
+            for (Path file : files) {
+                Matcher m = VERSION_FILE.matcher(file.getFileName().toString());
+                if (m.matches()) versions.add(Integer.parseInt(m.group(1)));
+            }
+        }
+        versions.sort(null);
+        return versions;
+    }
+
+    public OptionalInt currentVersion() throws IOException {
+        Path current = dir.resolve(CURRENT);
+        if (!Files.exists(current)) return OptionalInt.empty();
+        return OptionalInt.of(Integer.parseInt(Files.readString(current).trim()));
+    }
+
+    public LinearModelWeights load(int version) throws IOException {
+        return LinearModelWeights.load(fileFor(version));
+    }
+
+    private Path fileFor(int version) {
+        return dir.resolve(String.format("v%06d.lmw", version));
+    }
+
+    private void writeCurrent(int version, String action) throws IOException {
+        Path tmp = Files.createTempFile(dir, CURRENT, ".part");
+        Files.writeString(tmp, version + "\n");
+        Files.move(tmp, dir.resolve(CURRENT), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.writeString(dir.resolve(HISTORY), Instant.now() + " " + action + " " + version + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Calls {@code onChange} with the new version each time CURRENT moves away
+     * from {@code since}, the version the caller already has, on a daemon
+     * thread, until the returned handle is closed. CURRENT is read once after
+     * the watch is registered, so a change made before that is reported too.
+     */
+    public Closeable watch(int since, IntConsumer onChange) throws IOException {
+        WatchService watcher = dir.getFileSystem().newWatchService();
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(() -> {
+            int last = since;
+            try {
+                while (true) {
+                    OptionalInt version = currentVersion();
+                    if (version.isPresent() && version.getAsInt() != last) {
+                        last = version.getAsInt();
+                        onChange.accept(last);
+                    }
+                    awaitCurrentChange(watcher);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // closed
+            } catch (IOException e) {
+                System.err.println("Model store watcher stopped: " + e.getMessage());
+            }
+        }, "model-store-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        return watcher;
+    }
+
+    private static void awaitCurrentChange(WatchService watcher) throws InterruptedException {
+        while (true) {
+            WatchKey key = watcher.take();
+            boolean touched = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                touched |= event.context() instanceof Path p && p.toString().equals(CURRENT);
+            }
+            key.reset();
+            if (touched) return;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ModelStore <dir> list | activate <version> | rollback");
+            System.exit(2);
+        }
+        ModelStore store = new ModelStore(Path.of(args[0]));
+        switch (args[1]) {
+            case "list" -> {
+                int current = store.currentVersion().orElse(-1);
+                for (int v : store.versions()) {
+                    System.out.println((v == current ? "* " : "  ") + v + " " + store.load(v));
+                }
+            }
+            case "activate" -> store.activate(Integer.parseInt(args[2]));
+            case "rollback" -> System.out.println("Rolled back to version " + store.rollback());
+            default -> throw new IllegalArgumentException("Unknown command " + args[1]);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for PredictionServer's protobuf port. Each connection sends
+ * one request at a time and waits for its response, so the numbers are
+ * round-trip latencies as a synchronous caller sees them.
+ *
+ * Usage:
+ *   java model.PredictionClient [host] [port] [connections] [requestsPerConnection]
+ *   Defaults: localhost 9090, 1 connection, 100000 requests.
+ */
+public class PredictionClient {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9090;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        int warmup = Math.min(requests, 10_000);
+
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        long[][] latencies = new long[connections][];
+        long start = System.nanoTime();
+        Future<?>[] running = new Future<?>[connections];
+        for (int c = 0; c < connections; c++) {
+            int id = c;
+            running[c] = pool.submit(() -> {
+                latencies[id] = run(host, port, warmup, requests, new Random(id));
+                return null;
+            });
+        }
+        for (Future<?> f : running) f.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%d connections x %,d requests (after %,d warm-up each): %,.0f req/s overall%n",
+                connections, requests, warmup, connections * (long) (requests + warmup) / seconds);
+        System.out.printf("latency us: p50 %.1f  p90 %.1f  p99 %.1f  p99.9 %.1f  max %.1f%n",
+                pct(all, 0.50), pct(all, 0.90), pct(all, 0.99), pct(all, 0.999), all[all.length - 1] / 1e3);
+    }
+
+    private static long[] run(String host, int port, int warmup, int requests, Random random) throws Exception {
+        long[] latencies = new long[requests];
+        try (Socket socket = new Socket(host, port)) {
+            socket.setTcpNoDelay(true);
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            for (int i = 0; i < warmup + requests; i++) {
+                PredictionRequest request = PredictionRequest.newBuilder()
+                        .addFeatures(2000 + random.nextInt(30)).addFeatures(1 + random.nextInt(12))
+                        .addFeatures(1 + random.nextInt(28)).addFeatures(random.nextInt(24))
+                        .addFeatures(random.nextInt(60)).addFeatures(100 + random.nextInt(300))
+                        .build();
+                long t0 = System.nanoTime();
+                request.writeDelimitedTo(out);
+                out.flush();
+                PredictionResponse response = PredictionResponse.parseDelimitedFrom(in);
+                long elapsed = System.nanoTime() - t0;
+                if (response == null) throw new IllegalStateException("Server closed the connection");
+                if (!response.getError().isEmpty()) throw new IllegalStateException(response.getError());
+                if (i >= warmup) latencies[i - warmup] = elapsed;
+            }
+        }
+        return latencies;
+    }
+
+    private static double pct(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e3;
+    }
+}
@@ -0,0 +1,213 @@
+package model;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running prediction service for the linear models in this package.
+ *
+ * The model is loaded once at startup. Every request goes through one
+ * {@link MicroBatcher}, so concurrent callers share MatMul runs. Two
+ * front ends are offered:
+ *
+ * 1. TCP, length-delimited protobuf: the client writes PredictionRequest
+ *    messages with writeDelimitedTo and reads PredictionResponse messages
+ *    with parseDelimitedFrom, one response per request, in order, on the same
+ *    connection. Keep connections open; this is the low-latency path. The
+ *    server side uses FeatureCodec and one reusable slot per connection, so
+ *    a request allocates nothing in Java once the connection is warm.
+ *
+ * 2. HTTP/JSON adapter:
+ *      curl -d '{"features":[2024,4,18,9,0,101]}' http://localhost:8080/predict
+ *      -> {"result":0.85}
+ *
+ * Connections and HTTP exchanges run on virtual threads; a blocked caller
+ * waiting for its batch costs no platform thread.
+ *
+ * With --model-dir the server serves the CURRENT version of a ModelStore
+ * and swaps to a new version as soon as CURRENT changes (publish, activate
+ * or rollback), without pausing requests; see LiveModel.
+ *
+ * Usage:
+ *   java model.PredictionServer [--weights astro-weights.bin | --model-dir models/astro]
+ *                               [--port 9090] [--http-port 8080]
+ *                               [--window-us 0] [--max-batch 256] [--queue 65536]
+ *   Without a weights file the example astro weights are served. A window of 0
+ *   still batches whatever queued up while the previous batch ran; a few
+ *   hundred microseconds trades single-request latency for larger batches.
+ *   PredictionClient drives the TCP port and reports latency percentiles.
+ */
+public class PredictionServer implements AutoCloseable {
+
+    private final LiveModel model;
+    private final MicroBatcher batcher;
+    private final ServerSocket serverSocket;
+    private final HttpServer httpServer;
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+
+    public PredictionServer(LiveModel model, int port, int httpPort, int maxBatch, long windowMicros,
+                            int queueCapacity) throws IOException {
+        this.model = model;
+        this.batcher = new MicroBatcher(model, maxBatch, windowMicros, queueCapacity);
+        this.serverSocket = new ServerSocket(port);
+        this.httpServer = HttpServer.create(new InetSocketAddress(httpPort), 0);
+        this.httpServer.createContext("/predict", this::handleHttp);
+        this.httpServer.setExecutor(connections);
+    }
+
+    public void start() {
+        httpServer.start();
+        Thread acceptor = new Thread(this::accept, "prediction-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) System.err.println("Accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        MicroBatcher.BlockingSlot slot = new MicroBatcher.BlockingSlot();
+        try (socket) {
+            CodedInputStream in = CodedInputStream.newInstance(socket.getInputStream(), 8192);
+            CodedOutputStream out = CodedOutputStream.newInstance(socket.getOutputStream(), 8192);
+            while (FeatureCodec.readDelimitedRequest(in, slot)) {
+                batcher.call(slot);
+                if (slot.error() == null) {
+                    FeatureCodec.writeDelimitedResponse(out, slot.result());
+                } else {
+                    FeatureCodec.writeDelimitedError(out, slot.error());
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client went away or sent garbage; the connection is simply closed.
+        }
+    }
+
+    private PredictionResponse predict(PredictionRequest request) {
+        return batcher.submit(request).join();
+    }
+
+    private void handleHttp(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            PredictionRequest request;
+            try {
+                request = parseJson(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, error(e.getMessage()));
+                return;
+            }
+            PredictionResponse response = predict(request);
+            if (!response.getError().isEmpty()) {
+                respond(exchange, 422, error(response.getError()));
+            } else {
+                respond(exchange, 200, "{\"result\":" + response.getResult() + "}");
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static String error(String message) {
+        return "{\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+    }
+
+    /** Accepts exactly {"features":[n, n, ...]}, which is all PredictionRequest carries. */
+    static PredictionRequest parseJson(String json) {
+        int key = json.indexOf("\"features\"");
+        int open = json.indexOf('[', key);
+        int close = json.indexOf(']', open);
+        if (key < 0 || open < 0 || close < 0) throw new IllegalArgumentException("Expected {\"features\":[...]}");
+        PredictionRequest.Builder builder = PredictionRequest.newBuilder();
+        String list = json.substring(open + 1, close).trim();
+        if (!list.isEmpty()) {
+            for (String value : list.split(",")) {
+                try {
+                    builder.addFeatures(Float.parseFloat(value.trim()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Not a number: " + value.trim());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void close() throws Exception {
+        httpServer.stop(0);
+        serverSocket.close();
+        connections.shutdownNow();
+        batcher.close();
+        model.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) opts.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+
+        int port = Integer.parseInt(opts.getOrDefault("port", "9090"));
+        int httpPort = Integer.parseInt(opts.getOrDefault("http-port", "8080"));
+        int maxBatch = Integer.parseInt(opts.getOrDefault("max-batch", "256"));
+
+        LiveModel model;
+        String source;
+        if (opts.containsKey("model-dir")) {
+            ModelStore store = new ModelStore(Path.of(opts.get("model-dir")));
+            model = LiveModel.watching(store, maxBatch);
+            source = store.dir() + " v" + model.version() + ", watching for new versions";
+        } else {
+            Path weightsFile = Path.of(opts.getOrDefault("weights", "astro-weights.bin"));
+            boolean trained = Files.exists(weightsFile);
+            model = new LiveModel(trained
+                    ? LinearModelWeights.load(weightsFile)
+                    : new LinearModelWeights(new float[] {0.5f, 2.0f, 1.5f, 1.0f, 0.8f, 0.3f}, 0f), 0, maxBatch);
+            source = trained ? weightsFile.toString() : "example weights";
+        }
+
+        PredictionServer server = new PredictionServer(model, port, httpPort, maxBatch,
+                Long.parseLong(opts.getOrDefault("window-us", "0")),
+                Integer.parseInt(opts.getOrDefault("queue", "65536")));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (Exception ignored) {
+            }
+        }));
+        server.start();
+        System.out.printf("Serving %d-feature model (%s): protobuf on :%d, HTTP/JSON on :%d/predict%n",
+                model.featureCount(), source, port, httpPort);
+        Thread.currentThread().join();
+    }
+}
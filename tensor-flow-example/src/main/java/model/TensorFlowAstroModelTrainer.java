@@ -1,77 +1,252 @@
 package model;
 
+import org.tensorflow.Graph;
+import org.tensorflow.Operand;
+import org.tensorflow.Result;
+import org.tensorflow.Session;
+import org.tensorflow.ndarray.Shape;
+import org.tensorflow.ndarray.buffer.DataBuffers;
+import org.tensorflow.op.Op;
+import org.tensorflow.op.Ops;
+import org.tensorflow.op.core.Gradients;
+import org.tensorflow.op.core.Placeholder;
+import org.tensorflow.op.core.Variable;
+import org.tensorflow.proto.ConfigProto;
+import org.tensorflow.types.TFloat32;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 
 /**
- * Simple Astro Model Trainer (Dummy Gradient Descent)
- * This example "trains" weights for a linear model to fit given astro features to targets.
- * In real scenarios, use TensorFlow's training APIs and real datasets.
+ * Astro Model Trainer (TensorFlow graph, mini-batch gradient descent)
+ * Fits a linear model, score = features . weights + bias, to a CSV file of
+ * astro features and targets, and saves the weights for the prediction models.
  *
  * === Real-life Training Scenario Example ===
  * Scenario: Predicting Favorability Score for Business Start Date
- * Dataset:
- *   Each row: [year, month, day, hour, minute, locationCode] -> favorabilityScore
- *   Example rows:
- *     [2024, 4, 18, 9, 0, 101]   -> 0.85  // Favorable
- *     [2024, 4, 19, 15, 30, 101] -> 0.40  // Less favorable
- *     [2024, 5, 1, 10, 0, 102]   -> 0.90  // Highly favorable
- *     [2024, 5, 2, 16, 0, 102]   -> 0.35  // Not favorable
- *     [2024, 6, 10, 8, 0, 103]   -> 0.75  // Favorable
- *     [2024, 6, 11, 18, 0, 103]  -> 0.20  // Not favorable
+ * Dataset (CSV, one sample per line, target last; a header line is skipped):
+ *   year,month,day,hour,minute,locationCode,favorability
+ *   2024,4,18,9,0,101,0.85    // Favorable
+ *   2024,4,19,15,30,101,0.40  // Less favorable
+ *   2024,5,1,10,0,102,0.90    // Highly favorable
+ *   2024,5,2,16,0,102,0.35    // Not favorable
+ *   2024,6,10,8,0,103,0.75    // Favorable
+ *   2024,6,11,18,0,103,0.20   // Not favorable
+ *
+ * How it trains:
+ *   - A first pass over the file computes per-feature mean and standard
+ *     deviation. Features are standardized before they reach the graph. Raw
+ *     years (~2024) next to minutes (0-59) is why the old scalar trainer needed
+ *     a 1e-6 learning rate and thousands of epochs.
+ *   - Each epoch streams the file again in mini-batches. Only one batch is in
+ *     memory at a time, so the file can be larger than the heap.
+ *   - The gradient step is one graph run (Gradients + ApplyGradientDescent).
+ *     The session uses every core through intra/inter-op parallelism.
+ *   - The normalization is folded back into the weights before saving. The
+ *     saved model therefore scores raw features, exactly like
+ *     TensorFlowAstroPredictionModel and BatchPredictionEngine.
  *
  * Usage:
- *   - Replace the featureSet and targets arrays below with real or larger datasets.
- *   - Run this trainer to fit weights for the linear model.
+ *   java model.TensorFlowAstroModelTrainer [data.csv] [weightsOut] [epochs] [batchSize] [learningRate]
+ *   Defaults: the six rows above, astro-weights.bin, 50 epochs, batch 256, rate 0.1.
+ *   If weightsOut is a directory it is used as a ModelStore: the weights become
+ *   its next version, and servers watching the store switch to it.
  */
 public class TensorFlowAstroModelTrainer {
-    public static void main(String[] args) {
-        // Realistic training data: features and target favorability scores
-        float[][] featureSet = {
-            {2024f, 4f, 18f, 9f, 0f, 101f},
-            {2024f, 4f, 19f, 15f, 30f, 101f},
-            {2024f, 5f, 1f, 10f, 0f, 102f},
-            {2024f, 5f, 2f, 16f, 0f, 102f},
-            {2024f, 6f, 10f, 8f, 0f, 103f},
-            {2024f, 6f, 11f, 18f, 0f, 103f}
-        };
-        float[] targets = {0.85f, 0.40f, 0.90f, 0.35f, 0.75f, 0.20f}; // Favorability scores
-
-        // Initialize weights
-        float[] weights = new float[featureSet[0].length];
-        Arrays.fill(weights, 0.1f);
-
-        float learningRate = 0.000001f;
-        int epochs = 2000;
-
-        for (int epoch = 0; epoch < epochs; epoch++) {
-            float[] gradients = new float[weights.length];
-            float loss = 0f;
-
-            // Compute gradients for each sample
-            for (int i = 0; i < featureSet.length; i++) {
-                float[] features = featureSet[i];
-                float prediction = 0f;
-                for (int j = 0; j < weights.length; j++) {
-                    prediction += features[j] * weights[j];
+
+    public static void main(String[] args) throws IOException {
+        Path data = args.length > 0 ? Path.of(args[0]) : writeSampleData();
+        Path out = Path.of(args.length > 1 ? args[1] : "astro-weights.bin");
+        int epochs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        int batchSize = args.length > 3 ? Integer.parseInt(args[3]) : 256;
+        float learningRate = args.length > 4 ? Float.parseFloat(args[4]) : 0.1f;
+
+        Stats stats = Stats.of(data);
+        System.out.printf("Samples: %,d, features: %d%n", stats.count, stats.mean.length);
+        System.out.println("Feature mean: " + Arrays.toString(stats.mean));
+        System.out.println("Feature std:  " + Arrays.toString(stats.std));
+
+        long start = System.nanoTime();
+        LinearModelWeights weights = train(data, stats, epochs, batchSize, learningRate, true);
+        System.out.printf("Trained in %.1f s: %s%n", (System.nanoTime() - start) / 1e9, weights);
+        if (Files.isDirectory(out)) {
+            int version = new ModelStore(out).publish(weights);
+            System.out.println("Published version " + version + " to model store " + out.toAbsolutePath());
+        } else {
+            weights.save(out);
+            System.out.println("Saved weights to " + out.toAbsolutePath());
+        }
+    }
+
+    static LinearModelWeights train(Path data, Stats stats, int epochs, int batchSize, float learningRate,
+                                    boolean logProgress) throws IOException {
+        int n = stats.mean.length;
+        int cores = Runtime.getRuntime().availableProcessors();
+        ConfigProto config = ConfigProto.newBuilder()
+                .setIntraOpParallelismThreads(cores)
+                .setInterOpParallelismThreads(cores)
+                .build();
+
+        try (Graph graph = new Graph()) {
+            Ops tf = Ops.create(graph);
+            Placeholder<TFloat32> x = tf.placeholder(TFloat32.class, Placeholder.shape(Shape.of(Shape.UNKNOWN_SIZE, n)));
+            Placeholder<TFloat32> y = tf.placeholder(TFloat32.class, Placeholder.shape(Shape.of(Shape.UNKNOWN_SIZE, 1)));
+            Variable<TFloat32> w = tf.variable(tf.zeros(tf.constant(new int[] {n, 1}), TFloat32.class));
+            Variable<TFloat32> b = tf.variable(tf.zeros(tf.constant(new int[] {1}), TFloat32.class));
+
+            Operand<TFloat32> prediction = tf.math.add(tf.linalg.matMul(x, w), b);
+            Operand<TFloat32> loss = tf.math.mean(tf.math.square(tf.math.sub(prediction, y)), tf.constant(new int[] {0, 1}));
+            Gradients gradients = tf.gradients(loss, List.of(w, b));
+            Operand<TFloat32> rate = tf.constant(learningRate);
+            List<Op> step = List.of(
+                    tf.train.applyGradientDescent(w, rate, gradients.<TFloat32>dy(0)),
+                    tf.train.applyGradientDescent(b, rate, gradients.<TFloat32>dy(1)));
+
+            try (Session session = new Session(graph, config)) {
+                session.initialize();
+                float[] features = new float[batchSize * n];
+                float[] targets = new float[batchSize];
+                for (int epoch = 0; epoch < epochs; epoch++) {
+                    double lossSum = 0;
+                    long seen = 0;
+                    try (BufferedReader reader = Files.newBufferedReader(data)) {
+                        int rows;
+                        while ((rows = readBatch(reader, stats, features, targets)) > 0) {
+                            try (TFloat32 xs = TFloat32.tensorOf(Shape.of(rows, n),
+                                        DataBuffers.of(features, true, false).slice(0, (long) rows * n));
+                                 TFloat32 ys = TFloat32.tensorOf(Shape.of(rows, 1),
+                                        DataBuffers.of(targets, true, false).slice(0, rows))) {
+                                Session.Runner runner = session.runner().feed(x, xs).feed(y, ys).fetch(loss);
+                                step.forEach(runner::addTarget);
+                                try (Result result = runner.run()) {
+                                    lossSum += ((TFloat32) result.get(0)).getFloat() * rows;
+                                }
+                            }
+                            seen += rows;
+                        }
+                    }
+                    if (logProgress && (epoch % Math.max(1, epochs / 10) == 0 || epoch == epochs - 1)) {
+                        System.out.printf("Epoch %d, Loss: %.6f%n", epoch, lossSum / seen);
+                    }
                 }
-                float error = prediction - targets[i];
-                loss += error * error;
-                for (int j = 0; j < weights.length; j++) {
-                    gradients[j] += 2 * error * features[j];
+
+                try (Result result = session.runner().fetch(w).fetch(b).run()) {
+                    float[] normalized = new float[n];
+                    ((TFloat32) result.get(0)).copyTo(DataBuffers.of(normalized, false, false));
+                    float bias = ((TFloat32) result.get(1)).getFloat(0);
+                    return stats.denormalize(normalized, bias);
                 }
             }
+        }
+    }
 
-            // Update weights
-            for (int j = 0; j < weights.length; j++) {
-                weights[j] -= learningRate * gradients[j] / featureSet.length;
+    /** Reads up to {@code targets.length} standardized samples; returns how many were read. */
+    private static int readBatch(BufferedReader reader, Stats stats, float[] features, float[] targets)
+            throws IOException {
+        int n = stats.mean.length;
+        int rows = 0;
+        String line;
+        while (rows < targets.length && (line = reader.readLine()) != null) {
+            float[] sample = parse(line, n);
+            if (sample == null) continue;
+            for (int j = 0; j < n; j++) {
+                features[rows * n + j] = (sample[j] - stats.mean[j]) / stats.std[j];
             }
+            targets[rows++] = sample[n];
+        }
+        return rows;
+    }
 
-            if (epoch % 400 == 0) {
-                System.out.printf("Epoch %d, Loss: %.6f, Weights: %s%n", epoch, loss / featureSet.length, Arrays.toString(weights));
+    /** Features followed by the target, or null for blank and header lines. */
+    private static float[] parse(String line, int featureCount) {
+        if (line.isBlank() || !isNumericStart(line)) return null;
+        String[] parts = line.split(",");
+        if (featureCount >= 0 && parts.length != featureCount + 1) {
+            throw new IllegalArgumentException("Expected " + (featureCount + 1) + " columns: " + line);
+        }
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) values[i] = Float.parseFloat(parts[i].trim());
+        return values;
+    }
+
+    private static boolean isNumericStart(String line) {
+        char c = line.trim().charAt(0);
+        return Character.isDigit(c) || c == '-' || c == '.';
+    }
+
+    private static Path writeSampleData() throws IOException {
+        Path file = Files.createTempFile("astro-training-", ".csv");
+        file.toFile().deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            writer.write("year,month,day,hour,minute,locationCode,favorability\n");
+            writer.write("2024,4,18,9,0,101,0.85\n");
+            writer.write("2024,4,19,15,30,101,0.40\n");
+            writer.write("2024,5,1,10,0,102,0.90\n");
+            writer.write("2024,5,2,16,0,102,0.35\n");
+            writer.write("2024,6,10,8,0,103,0.75\n");
+            writer.write("2024,6,11,18,0,103,0.20\n");
+        }
+        return file;
+    }
+
+    /** Per-feature mean and standard deviation from one streaming pass (Welford). */
+    static final class Stats {
+        final long count;
+        final float[] mean;
+        final float[] std;
+
+        private Stats(long count, float[] mean, float[] std) {
+            this.count = count;
+            this.mean = mean;
+            this.std = std;
+        }
+
+        static Stats of(Path data) throws IOException {
+            long count = 0;
+            double[] mean = null;
+            double[] m2 = null;
+            try (BufferedReader reader = Files.newBufferedReader(data)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    float[] sample = parse(line, mean == null ? -1 : mean.length);
+                    if (sample == null) continue;
+                    if (mean == null) {
+                        mean = new double[sample.length - 1];
+                        m2 = new double[sample.length - 1];
+                    }
+                    count++;
+                    for (int j = 0; j < mean.length; j++) {
+                        double delta = sample[j] - mean[j];
+                        mean[j] += delta / count;
+                        m2[j] += delta * (sample[j] - mean[j]);
+                    }
+                }
             }
+            if (count == 0) throw new IllegalArgumentException("No samples in " + data);
+            float[] meanF = new float[mean.length];
+            float[] stdF = new float[mean.length];
+            for (int j = 0; j < mean.length; j++) {
+                meanF[j] = (float) mean[j];
+                double std = Math.sqrt(m2[j] / count);
+                stdF[j] = std > 1e-12 ? (float) std : 1f; // constant column: leave it centred only
+            }
+            return new Stats(count, meanF, stdF);
         }
 
-        System.out.println("Trained weights: " + Arrays.toString(weights));
-        // Save weights to file or use in prediction model as needed
+        /** Turns weights over standardized features into weights over raw features. */
+        LinearModelWeights denormalize(float[] normalized, float bias) {
+            float[] raw = new float[normalized.length];
+            double rawBias = bias;
+            for (int j = 0; j < raw.length; j++) {
+                raw[j] = normalized[j] / std[j];
+                rawBias -= (double) raw[j] * mean[j];
+            }
+            return new LinearModelWeights(raw, (float) rawBias);
+        }
     }
 }
@@ -1,15 +1,18 @@
 package model;
 
-import org.tensorflow.ndarray.Shape;
-import org.tensorflow.types.TFloat32;
-import org.tensorflow.EagerSession;
-
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Extended Astro Prediction Model Example.
  * Accepts input from command-line or uses defaults, prints features,
- * and simulates a weighted sum as a more complex prediction.
+ * and scores them with the weights saved by TensorFlowAstroModelTrainer
+ * (-Dastro.weights=..., default astro-weights.bin; a ModelStore directory
+ * means its current version), falling back to
+ * example weights when no trained model exists.
  *
  * === Real-life Astro Prediction Scenarios ===
  * 1. Daily Horoscope Prediction:
@@ -58,24 +61,31 @@ public class TensorFlowAstroPredictionModel {
         }
         PredictionRequest request = reqBuilder.build();
 
-        // Simulate a weighted sum as a more complex prediction
-        float[] weights = new float[] {0.5f, 2.0f, 1.5f, 1.0f, 0.8f, 0.3f}; // Example weights
-
-        try (EagerSession session = EagerSession.create()) {
-            try (TFloat32 tensor = TFloat32.tensorOf(Shape.of(features.length))) {
-                for (int i = 0; i < features.length; i++) {
-                    tensor.setFloat(features[i], i);
-                }
-                float weightedSum = 0f;
-                for (int i = 0; i < features.length; i++) {
-                    weightedSum += tensor.getFloat(i) * weights[i];
+        // Trained weights if TensorFlowAstroModelTrainer has written them, else the example weights
+        Path weightsFile = Path.of(System.getProperty("astro.weights", "astro-weights.bin"));
+        LinearModelWeights model = new LinearModelWeights(new float[] {0.5f, 2.0f, 1.5f, 1.0f, 0.8f, 0.3f}, 0f);
+        if (Files.exists(weightsFile)) {
+            try {
+                if (Files.isDirectory(weightsFile)) {
+                    ModelStore store = new ModelStore(weightsFile);
+                    int version = store.currentVersion().orElseThrow(() -> new IOException("no current version"));
+                    model = store.load(version);
+                    System.out.println("Using model version " + version + " from " + weightsFile.toAbsolutePath());
+                } else {
+                    model = LinearModelWeights.load(weightsFile);
+                    System.out.println("Using trained weights from " + weightsFile.toAbsolutePath());
                 }
-                // In a real model, replace 'weightedSum' with actual prediction logic
-                PredictionResponse response = PredictionResponse.newBuilder()
-                    .setResult(weightedSum)
-                    .build();
-                System.out.printf("Astro Prediction (weighted sum) result: %.2f%n", response.getResult());
+            } catch (IOException e) {
+                System.err.println("Ignoring unreadable weights file " + weightsFile + ": " + e.getMessage());
             }
         }
+        if (model.featureCount() != features.length) {
+            throw new IllegalStateException("Model expects " + model.featureCount() + " features, got " + features.length);
+        }
+
+        try (BatchPredictionEngine engine = new BatchPredictionEngine(model.weights(), model.bias())) {
+            PredictionResponse response = engine.predict(List.of(request)).get(0);
+            System.out.printf("Astro Prediction (weighted sum) result: %.2f%n", response.getResult());
+        }
     }
 }
@@ -1,38 +1,35 @@
 package model;
 
 
+import com.google.protobuf.CodedInputStream;
 import org.tensorflow.ndarray.Shape;
+import org.tensorflow.ndarray.buffer.DataBuffers;
+import org.tensorflow.op.Ops;
 import org.tensorflow.types.TFloat32;
 import org.tensorflow.EagerSession;
 
+import java.io.IOException;
+
 public class TensorFlowPredictionModel {
-    public static void main(String[] args) {
-        // Example features
-        PredictionRequest request = PredictionRequest.newBuilder()
+    public static void main(String[] args) throws IOException {
+        // Example features, serialized as they would arrive on the wire
+        byte[] wire = PredictionRequest.newBuilder()
             .addFeatures(1.0f)
             .addFeatures(2.0f)
             .addFeatures(3.0f)
-            .build();
-
-        // Use TensorFlow to sum features
-        try (EagerSession session = EagerSession.create()) {
-            double[] floatFeatures = request.getFeaturesList().stream()
-                    .mapToDouble(f -> f)
-                    .toArray();
-            float[] features = new float[floatFeatures.length];
-            for (int i = 0; i < floatFeatures.length; i++) {
-                features[i] = (float) floatFeatures[i];
-            }
+            .build()
+            .toByteArray();
 
+        // Decode the packed floats straight into a reusable primitive buffer (no boxing, no double[])
+        FeatureBuffer features = new FeatureBuffer();
+        FeatureCodec.readRequest(CodedInputStream.newInstance(wire), features);
 
-            try (TFloat32 tensor = TFloat32.tensorOf(Shape.of(features.length))) {
-                for (int i = 0; i < features.length; i++) {
-                    tensor.setFloat(features[i], i);
-                }
-                float sum = 0f;
-                for (int i = 0; i < features.length; i++) {
-                    sum += tensor.getFloat(i);
-                }
+        // Use TensorFlow to sum features: one bulk copy into the tensor, then a Sum op
+        try (EagerSession session = EagerSession.create()) {
+            Ops tf = Ops.create(session);
+            try (TFloat32 tensor = TFloat32.tensorOf(Shape.of(features.size()),
+                    DataBuffers.of(features.values(), true, false).slice(0, features.size()))) {
+                float sum = tf.sum(tf.constantOf(tensor), tf.constant(0)).asTensor().getFloat();
                 PredictionResponse response = PredictionResponse.newBuilder()
                     .setResult(sum)
                     .build();
@@ -41,4 +38,3 @@ public class TensorFlowPredictionModel {
         }
     }
 }
-
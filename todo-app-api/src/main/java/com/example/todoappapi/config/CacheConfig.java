@@ -0,0 +1,36 @@
+package com.example.todoappapi.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String TODO_LISTS = "todoLists";
+
+    /**
+     * Bounded Caffeine cache for list results, keyed by collection version so entries never go
+     * stale (see {@code TodoService.list}). Wrapped so the evictions from mutating service methods,
+     * which only reclaim entries of superseded versions, run after their transaction commits.
+     * {@code recordStats} feeds the {@code cache.*} metrics.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${todo.cache.lists.spec:maximumSize=1000,expireAfterWrite=30s,recordStats}") String spec
+    ) {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCaffeineSpec(CaffeineSpec.parse(spec));
+        caffeine.setAllowNullValues(false);
+        caffeine.setCacheNames(List.of(TODO_LISTS));
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
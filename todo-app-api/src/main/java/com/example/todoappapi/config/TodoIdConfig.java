@@ -0,0 +1,27 @@
+package com.example.todoappapi.config;
+
+import com.example.todoappapi.todo.TodoIdGenerator;
+import com.example.todoappapi.todo.UuidV7Generator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Locale;
+import java.util.UUID;
+
+@Configuration
+public class TodoIdConfig {
+
+    /**
+     * {@code v7} (default) issues time-ordered ids; {@code random} keeps the old version 4 behaviour.
+     * Both are plain {@link UUID}s, so the column type and API shape do not change.
+     */
+    @Bean
+    public TodoIdGenerator todoIdGenerator(@Value("${todo.id.strategy:v7}") String strategy) {
+        return switch (strategy.trim().toLowerCase(Locale.ROOT)) {
+            case "v7" -> new UuidV7Generator();
+            case "random", "v4" -> UUID::randomUUID;
+            default -> throw new IllegalArgumentException("Unknown todo.id.strategy: " + strategy);
+        };
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.todoappapi.todo;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super("Invalid cursor: " + cursor);
+    }
+}
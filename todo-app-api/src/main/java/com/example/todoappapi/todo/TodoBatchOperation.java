@@ -0,0 +1,22 @@
+package com.example.todoappapi.todo;
+
+import java.util.UUID;
+
+/**
+ * One queued client mutation. {@code id} is required for everything except {@link Type#CREATE};
+ * {@code title}, {@code completed} and {@code priority} follow the single-item request semantics.
+ */
+public record TodoBatchOperation(
+        Type op,
+        UUID id,
+        String title,
+        Boolean completed,
+        TodoPriority priority
+) {
+    public enum Type {
+        CREATE,
+        UPDATE,
+        TOGGLE,
+        DELETE
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.todoappapi.todo;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record TodoBatchRequest(
+        @NotEmpty(message = "operations are required")
+        @Size(max = TodoBatchRequest.MAX_OPERATIONS, message = "at most " + TodoBatchRequest.MAX_OPERATIONS + " operations per batch")
+        List<@NotNull TodoBatchOperation> operations
+) {
+    public static final int MAX_OPERATIONS = 1000;
+}
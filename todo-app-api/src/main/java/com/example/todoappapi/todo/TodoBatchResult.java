@@ -0,0 +1,26 @@
+package com.example.todoappapi.todo;
+
+public record TodoBatchResult(
+        int index,
+        Status status,
+        TodoResponse todo,
+        String error
+) {
+    public enum Status {
+        OK,
+        NOT_FOUND,
+        INVALID
+    }
+
+    static TodoBatchResult ok(int index, TodoResponse todo) {
+        return new TodoBatchResult(index, Status.OK, todo, null);
+    }
+
+    static TodoBatchResult notFound(int index, Object id) {
+        return new TodoBatchResult(index, Status.NOT_FOUND, null, "Todo not found: " + id);
+    }
+
+    static TodoBatchResult invalid(int index, String error) {
+        return new TodoBatchResult(index, Status.INVALID, null, error);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.todoappapi.todo;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Issues the monotonically increasing change versions stamped on todos and tombstones,
+ * and exposes the current collection version used for list ETags and the tombstone
+ * low-water mark below which deltas are no longer complete.
+ */
+@Component
+public class TodoChangeVersions {
+
+    private final TodoCollectionVersionRepository repository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TodoChangeVersions(TodoCollectionVersionRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void ensureCounterRow() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!repository.existsById(TodoCollectionVersion.SINGLETON_ID)) {
+                repository.save(new TodoCollectionVersion(0));
+            }
+        });
+    }
+
+    /**
+     * Reserves the next version for the calling write transaction and holds the counter row
+     * lock until it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        repository.increment();
+        return current();
+    }
+
+    @Transactional(readOnly = true)
+    public long current() {
+        return repository.findCurrent().orElse(0L);
+    }
+
+    /** Highest version whose tombstones may have been removed; {@code 0} if none ever were. */
+    @Transactional(readOnly = true)
+    public long purgedThrough() {
+        return repository.findPurgedThrough().orElse(0L);
+    }
+
+    /** Records that tombstones up to {@code version} are gone; never lowers the mark. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void raisePurgedThrough(long version) {
+        repository.raisePurgedThrough(version);
+    }
+}
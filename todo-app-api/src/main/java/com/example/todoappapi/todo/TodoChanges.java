@@ -0,0 +1,17 @@
+package com.example.todoappapi.todo;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Delta since a client's last sync. Store {@code version} and send it back as {@code since}
+ * next time; applying the same delta twice is harmless. When {@code full} is set, {@code upserts}
+ * is a complete snapshot and the client must drop whatever it has cached.
+ */
+public record TodoChanges(
+        long version,
+        List<TodoResponse> upserts,
+        List<UUID> deletedIds,
+        boolean full
+) {
+}
@@ -0,0 +1,52 @@
+package com.example.todoappapi.todo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Single-row counter bumped by every write to the todo collection. Incrementing it takes a row
+ * lock held until commit, so change versions become visible in the order they were issued and
+ * a client syncing with {@code since=N} cannot miss a change that commits later with a lower version.
+ * <p>
+ * {@code purgedThrough} is the tombstone low-water mark: deletions up to that version may no longer
+ * be recorded, so a client syncing from an older version has to take a full snapshot.
+ */
+@Entity
+@Table(name = "todo_collection_version")
+public class TodoCollectionVersion {
+
+    static final int SINGLETON_ID = 1;
+
+    @Id
+    private int id;
+
+    @Column(nullable = false)
+    private long version;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long purgedThrough;
+
+    protected TodoCollectionVersion() {
+    }
+
+    TodoCollectionVersion(long version) {
+        this.id = SINGLETON_ID;
+        this.version = version;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getPurgedThrough() {
+        return purgedThrough;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.todoappapi.todo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface TodoCollectionVersionRepository extends JpaRepository<TodoCollectionVersion, Integer> {
+
+    @Modifying
+    @Query("update TodoCollectionVersion v set v.version = v.version + 1 where v.id = 1")
+    int increment();
+
+    @Query("select v.version from TodoCollectionVersion v where v.id = 1")
+    Optional<Long> findCurrent();
+
+    @Modifying
+    @Query("update TodoCollectionVersion v set v.purgedThrough = :version where v.id = 1 and v.purgedThrough < :version")
+    int raisePurgedThrough(long version);
+
+    @Query("select v.purgedThrough from TodoCollectionVersion v where v.id = 1")
+    Optional<Long> findPurgedThrough();
+}
@@ -1,6 +1,9 @@
 package com.example.todoappapi.todo;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +14,8 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -18,21 +23,69 @@ import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/todos")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = {TodoController.NEXT_CURSOR_HEADER, HttpHeaders.ETAG})
 public class TodoController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TodoService todoService;
+    private final TodoExportService todoExportService;
 
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, TodoExportService todoExportService) {
         this.todoService = todoService;
+        this.todoExportService = todoExportService;
     }
 
     @GetMapping
-    public List<TodoResponse> listTodos(
+    public ResponseEntity<List<TodoResponse>> listTodos(
             @RequestParam(defaultValue = "all") String filter,
-            @RequestParam(defaultValue = "") String search
+            @RequestParam(defaultValue = "") String search,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest
     ) {
-        return todoService.list(filter, search);
+        // A client holding the current version's ETag already has a body at least that new,
+        // so this answer needs the counter only.
+        String current = todoService.collectionETag();
+        if (matchesAny(webRequest.getHeader(HttpHeaders.IF_NONE_MATCH), current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+        TodoPage page = todoService.list(TodoQuery.of(filter, search, cursor, limit));
+        // The ETag is the version the body was read at (the list cache is keyed by it), never a
+        // separately read counter that could run ahead of a cached body and let 304s pin it.
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(TodoService.eTagOf(page.version()));
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /** Weak comparison against an {@code If-None-Match} list, as for GET. */
+    private static boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @GetMapping("/changes")
+    public TodoChanges changes(@RequestParam(required = false) Long since) {
+        return todoService.changesSince(since);
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTodos() {
+        StreamingResponseBody body = todoExportService::writeNdjson;
+        return ResponseEntity.ok()
+                .contentType(TodoExportService.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping
@@ -40,6 +93,11 @@ public class TodoController {
         return todoService.create(request);
     }
 
+    @PostMapping("/batch")
+    public List<TodoBatchResult> applyBatch(@Valid @RequestBody TodoBatchRequest request) {
+        return todoService.applyBatch(request.operations());
+    }
+
     @PatchMapping("/{id}")
     public TodoResponse updateTodo(@PathVariable UUID id, @RequestBody UpdateTodoRequest request) {
         return todoService.update(id, request);
@@ -5,15 +5,25 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
-@Table(name = "todos")
-public class TodoEntity {
+@Table(name = "todos", indexes = {
+        @Index(name = "idx_todos_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_todos_completed_created_at", columnList = "completed, created_at, id"),
+        @Index(name = "idx_todos_change_version", columnList = "change_version")
+})
+public class TodoEntity implements Persistable<UUID> {
 
     @Id
     private UUID id;
@@ -21,6 +31,15 @@ public class TodoEntity {
     @Column(nullable = false)
     private String title;
 
+    /**
+     * Lower-cased copy of {@link #title} maintained by the database, so case-insensitive
+     * search compares stored values instead of lower-casing every row per query. Deliberately
+     * unindexed: search is a substring match ({@code like '%term%'}), which a B-tree cannot serve.
+     */
+    @Column(name = "title_lower", insertable = false, updatable = false,
+            columnDefinition = "varchar(255) generated always as (lower(title))")
+    private String titleLower;
+
     @Column(nullable = false)
     private boolean completed;
 
@@ -31,11 +50,23 @@ public class TodoEntity {
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * Collection version of the last write to this row (see {@link TodoChangeVersions}).
+     * Rows written before versioning existed default to 0.
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+
+    /**
+     * Ids are assigned by {@link TodoIdGenerator} before saving, so Spring Data cannot use a null id
+     * to detect new entities; without this flag every save of a new todo would issue a SELECT first.
+     */
+    @Transient
+    private boolean persisted;
+
     @PrePersist
     void prePersist() {
-        if (id == null) {
-            id = UUID.randomUUID();
-        }
         if (createdAt == null) {
             createdAt = Instant.now();
         }
@@ -44,6 +75,18 @@ public class TodoEntity {
         }
     }
 
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @Override
     public UUID getId() {
         return id;
     }
@@ -83,5 +126,12 @@ public class TodoEntity {
     public void setCreatedAt(Instant createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public void setChangeVersion(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
+}
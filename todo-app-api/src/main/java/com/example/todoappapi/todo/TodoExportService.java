@@ -0,0 +1,55 @@
+package com.example.todoappapi.todo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every todo as newline-delimited JSON straight from a database cursor, so memory use
+ * does not grow with the table and the first rows reach the client while the rest are still read.
+ */
+@Service
+public class TodoExportService {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final TodoRepository todoRepository;
+    private final EntityManager entityManager;
+    private final ObjectWriter writer;
+
+    public TodoExportService(TodoRepository todoRepository, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.todoRepository = todoRepository;
+        this.entityManager = entityManager;
+        this.writer = objectMapper.writerFor(TodoResponse.class);
+    }
+
+    @Transactional(readOnly = true)
+    public long writeNdjson(OutputStream out) throws IOException {
+        long written = 0;
+        try (Stream<TodoEntity> todos = todoRepository.streamAllNewestFirst()) {
+            Iterator<TodoEntity> iterator = todos.iterator();
+            while (iterator.hasNext()) {
+                TodoEntity entity = iterator.next();
+                out.write(writer.writeValueAsBytes(TodoResponse.fromEntity(entity)));
+                out.write('\n');
+                // Keep the persistence context empty; otherwise every streamed row stays reachable.
+                entityManager.detach(entity);
+                if (++written % FLUSH_INTERVAL == 1) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return written;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.todoappapi.todo;
+
+import java.util.UUID;
+
+/**
+ * Source of primary keys for new todos. The active implementation is chosen with
+ * {@code todo.id.strategy} (see {@link com.example.todoappapi.config.TodoIdConfig}).
+ */
+@FunctionalInterface
+public interface TodoIdGenerator {
+    UUID nextId();
+}
@@ -0,0 +1,14 @@
+package com.example.todoappapi.todo;
+
+import java.util.List;
+
+/**
+ * One list response. {@code version} is the collection version read before the rows, so the
+ * items reflect at least that version; it is what the response's ETag is derived from.
+ */
+public record TodoPage(
+        List<TodoResponse> items,
+        String nextCursor,
+        long version
+) {
+}
@@ -0,0 +1,27 @@
+package com.example.todoappapi.todo;
+
+import java.util.Locale;
+
+/**
+ * Normalized list query. Equal requests produce equal instances, which makes this the key of
+ * the list cache: {@code ?filter=Active&search= Milk} and {@code ?filter=active&search=milk}
+ * share one entry.
+ */
+public record TodoQuery(
+        String filter,
+        String search,
+        TodoCursor cursor,
+        Integer limit
+) {
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public static TodoQuery of(String filter, String search, String cursor, Integer limit) {
+        String normalizedFilter = filter == null ? "all" : filter.trim().toLowerCase(Locale.ROOT);
+        if (!normalizedFilter.equals("active") && !normalizedFilter.equals("completed")) {
+            normalizedFilter = "all";
+        }
+        String normalizedSearch = search == null ? "" : search.trim().toLowerCase(Locale.ROOT);
+        Integer pageSize = limit == null ? null : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return new TodoQuery(normalizedFilter, normalizedSearch, TodoCursor.decode(cursor), pageSize);
+    }
+}
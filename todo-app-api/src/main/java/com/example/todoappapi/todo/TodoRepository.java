@@ -1,10 +1,31 @@
 package com.example.todoappapi.todo;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TodoRepository extends JpaRepository<TodoEntity, UUID> {
-    long deleteByCompletedTrue();
-}
+public interface TodoRepository extends JpaRepository<TodoEntity, UUID>, JpaSpecificationExecutor<TodoEntity> {
+    @Modifying
+    @Query("delete from TodoEntity t where t.completed = true")
+    int deleteAllCompleted();
+
+    List<TodoEntity> findByChangeVersionGreaterThanOrderByChangeVersionAsc(long since);
 
+    /**
+     * Cursor over every todo, newest first. Must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from TodoEntity t order by t.createdAt desc, t.id desc")
+    Stream<TodoEntity> streamAllNewestFirst();
+}
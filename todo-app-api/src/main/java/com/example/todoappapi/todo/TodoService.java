@@ -1,83 +1,282 @@
 package com.example.todoappapi.todo;
 
+import com.example.todoappapi.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @Transactional
 public class TodoService {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
     private final TodoRepository todoRepository;
+    private final TodoTombstoneRepository tombstoneRepository;
+    private final TodoChangeVersions changeVersions;
+    private final TodoIdGenerator idGenerator;
+    private final Cache listCache;
 
-    public TodoService(TodoRepository todoRepository) {
+    public TodoService(
+            TodoRepository todoRepository,
+            TodoTombstoneRepository tombstoneRepository,
+            TodoChangeVersions changeVersions,
+            TodoIdGenerator idGenerator,
+            CacheManager cacheManager
+    ) {
         this.todoRepository = todoRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeVersions = changeVersions;
+        this.idGenerator = idGenerator;
+        this.listCache = cacheManager.getCache(CacheConfig.TODO_LISTS);
+    }
+
+    /** List cache key: a page is only ever served for the collection version it was read at. */
+    private record VersionedQuery(long version, TodoQuery query) {
     }
 
+    /**
+     * Weak ETag for list responses: the collection version changes on every committed write,
+     * so it can be checked without reading a single todo.
+     */
     @Transactional(readOnly = true)
-    public List<TodoResponse> list(String filter, String search) {
-        String normalizedFilter = filter == null ? "all" : filter.trim().toLowerCase(Locale.ROOT);
-        String normalizedSearch = search == null ? "" : search.trim().toLowerCase(Locale.ROOT);
-
-        return todoRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"))
-                .stream()
-                .filter(todo -> switch (normalizedFilter) {
-                    case "active" -> !todo.isCompleted();
-                    case "completed" -> todo.isCompleted();
-                    default -> true;
-                })
-                .filter(todo -> normalizedSearch.isEmpty() || todo.getTitle().toLowerCase(Locale.ROOT).contains(normalizedSearch))
+    public String collectionETag() {
+        return eTagOf(changeVersions.current());
+    }
+
+    public static String eTagOf(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Everything written or deleted after {@code since}. Without {@code since}, a full snapshot.
+     * The returned version is read before the rows, so a write racing with this call is at worst
+     * delivered twice, never skipped.
+     * <p>
+     * If tombstones after {@code since} may have been purged, or {@code since} is ahead of the
+     * collection (e.g. the database was reset), a full snapshot is returned instead. The purge mark
+     * is read after the tombstones, so a purge that removed any of them is seen.
+     */
+    @Transactional(readOnly = true)
+    public TodoChanges changesSince(Long since) {
+        long version = changeVersions.current();
+        if (since == null || since > version) {
+            return snapshot(version);
+        }
+        List<TodoResponse> upserts = todoRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(since).stream()
                 .map(TodoResponse::fromEntity)
                 .toList();
+        List<UUID> deletedIds = tombstoneRepository.findDeletedIdsSince(since);
+        if (since < changeVersions.purgedThrough()) {
+            return snapshot(version);
+        }
+        return new TodoChanges(version, upserts, deletedIds, false);
     }
 
-    public TodoResponse create(CreateTodoRequest request) {
-        TodoEntity entity = new TodoEntity();
-        entity.setTitle(request.title().trim());
-        entity.setPriority(request.priority() == null ? TodoPriority.MEDIUM : request.priority());
-        entity.setCompleted(false);
-        return TodoResponse.fromEntity(todoRepository.save(entity));
+    private TodoChanges snapshot(long version) {
+        List<TodoResponse> all = todoRepository.findAll(NEWEST_FIRST).stream()
+                .map(TodoResponse::fromEntity)
+                .toList();
+        return new TodoChanges(version, all, List.of(), true);
     }
 
-    public TodoResponse update(UUID id, UpdateTodoRequest request) {
-        TodoEntity entity = findOrThrow(id);
-
-        if (request.title() != null && !request.title().trim().isEmpty()) {
-            entity.setTitle(request.title().trim());
+    /**
+     * Removes tombstones of deletions made before {@code cutoff} and raises the purge mark to the
+     * newest version removed. Clients that last synced before the mark get a full snapshot.
+     */
+    public int purgeTombstones(Instant cutoff) {
+        Long through = tombstoneRepository.findLastVersionDeletedBefore(cutoff);
+        if (through == null) {
+            return 0;
         }
-        if (request.completed() != null) {
-            entity.setCompleted(request.completed());
-        }
-        if (request.priority() != null) {
-            entity.setPriority(request.priority());
+        changeVersions.raisePurgedThrough(through);
+        return tombstoneRepository.deleteThroughVersion(through);
+    }
+
+    /**
+     * Lists todos newest first, with filter and search evaluated by the database.
+     * When {@link TodoQuery#limit()} is set the result is one keyset page; {@link TodoPage#nextCursor()}
+     * is {@code null} once the last page has been returned.
+     * <p>
+     * Results are cached per collection version and normalized query. The version is read in the
+     * same transaction before the rows, and a write bumps it in the transaction that changes them,
+     * so a cached page is never older than its version. A reader that loaded rows just before a
+     * write commits can still put its page afterwards, but only under the old version, which no
+     * later lookup uses. The evictions on the mutating methods below merely free that memory.
+     */
+    @Transactional(readOnly = true)
+    public TodoPage list(TodoQuery query) {
+        long version = changeVersions.current();
+        return listCache.get(new VersionedQuery(version, query), () -> load(query, version));
+    }
+
+    private TodoPage load(TodoQuery query, long version) {
+        Specification<TodoEntity> spec = TodoSpecifications.matching(query.filter(), query.search(), query.cursor());
+
+        if (query.limit() == null) {
+            List<TodoResponse> items = todoRepository.findAll(spec, NEWEST_FIRST).stream()
+                    .map(TodoResponse::fromEntity)
+                    .toList();
+            return new TodoPage(items, null, version);
         }
 
+        int pageSize = query.limit();
+        List<TodoEntity> rows = todoRepository.findBy(spec, q -> q.sortBy(NEWEST_FIRST).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<TodoEntity> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? TodoCursor.after(pageRows.get(pageSize - 1)).encode() : null;
+        return new TodoPage(pageRows.stream().map(TodoResponse::fromEntity).toList(), nextCursor, version);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
+    public TodoResponse create(CreateTodoRequest request) {
+        long version = changeVersions.next();
+        return TodoResponse.fromEntity(todoRepository.save(newTodo(request.title(), request.priority(), version)));
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
+    public TodoResponse update(UUID id, UpdateTodoRequest request) {
+        TodoEntity entity = findOrThrow(id);
+        applyUpdate(entity, request.title(), request.completed(), request.priority());
+        entity.setChangeVersion(changeVersions.next());
         return TodoResponse.fromEntity(todoRepository.save(entity));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
     public TodoResponse toggle(UUID id) {
         TodoEntity entity = findOrThrow(id);
         entity.setCompleted(!entity.isCompleted());
+        entity.setChangeVersion(changeVersions.next());
         return TodoResponse.fromEntity(todoRepository.save(entity));
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
     public void delete(UUID id) {
         if (!todoRepository.existsById(id)) {
             throw new TodoNotFoundException(id);
         }
+        tombstoneRepository.recordDeleted(List.of(id), changeVersions.next(), Instant.now());
         todoRepository.deleteById(id);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
     public long clearCompleted() {
-        return todoRepository.deleteByCompletedTrue();
+        tombstoneRepository.recordDeletedCompleted(changeVersions.next(), Instant.now());
+        return todoRepository.deleteAllCompleted();
     }
 
+    /**
+     * Deletes every todo without recording tombstones: every delta that reached back before this
+     * version would list the whole collection, so the purge mark is raised instead and clients
+     * resync from a snapshot.
+     */
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
     public void clearAll() {
-        todoRepository.deleteAll();
+        long version = changeVersions.next();
+        changeVersions.raisePurgedThrough(version);
+        tombstoneRepository.deleteAllInBatch();
+        todoRepository.deleteAllInBatch();
+    }
+
+    /**
+     * Applies queued client mutations in order inside one transaction. Referenced todos are loaded
+     * with a single query, inserts and updates are flushed as JDBC batches at commit, and deletes
+     * run as one bulk statement. Items that cannot be applied are reported without failing the rest.
+     */
+    @CacheEvict(cacheNames = CacheConfig.TODO_LISTS, allEntries = true)
+    public List<TodoBatchResult> applyBatch(List<TodoBatchOperation> operations) {
+        long version = changeVersions.next();
+        Set<UUID> referencedIds = new HashSet<>();
+        for (TodoBatchOperation operation : operations) {
+            if (operation.op() != TodoBatchOperation.Type.CREATE && operation.id() != null) {
+                referencedIds.add(operation.id());
+            }
+        }
+        Map<UUID, TodoEntity> existing = new HashMap<>();
+        for (TodoEntity entity : todoRepository.findAllById(referencedIds)) {
+            existing.put(entity.getId(), entity);
+        }
+
+        List<TodoBatchResult> results = new ArrayList<>(operations.size());
+        List<UUID> deletedIds = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            TodoBatchOperation operation = operations.get(index);
+            if (operation.op() == null) {
+                results.add(TodoBatchResult.invalid(index, "op is required"));
+                continue;
+            }
+            if (operation.op() == TodoBatchOperation.Type.CREATE) {
+                if (operation.title() == null || operation.title().isBlank()) {
+                    results.add(TodoBatchResult.invalid(index, "title is required"));
+                    continue;
+                }
+                TodoEntity entity = newTodo(operation.title(), operation.priority(), version);
+                entity.setCompleted(Boolean.TRUE.equals(operation.completed()));
+                results.add(TodoBatchResult.ok(index, TodoResponse.fromEntity(todoRepository.save(entity))));
+                continue;
+            }
+            if (operation.id() == null) {
+                results.add(TodoBatchResult.invalid(index, "id is required"));
+                continue;
+            }
+            TodoEntity entity = existing.get(operation.id());
+            if (entity == null) {
+                results.add(TodoBatchResult.notFound(index, operation.id()));
+                continue;
+            }
+            entity.setChangeVersion(version);
+            switch (operation.op()) {
+                case UPDATE -> applyUpdate(entity, operation.title(), operation.completed(), operation.priority());
+                case TOGGLE -> entity.setCompleted(!entity.isCompleted());
+                case DELETE -> {
+                    existing.remove(entity.getId());
+                    deletedIds.add(entity.getId());
+                }
+                default -> throw new IllegalStateException("Unhandled batch op: " + operation.op());
+            }
+            results.add(TodoBatchResult.ok(index, TodoResponse.fromEntity(entity)));
+        }
+
+        if (!deletedIds.isEmpty()) {
+            tombstoneRepository.recordDeleted(deletedIds, version, Instant.now());
+            todoRepository.deleteAllByIdInBatch(deletedIds);
+        }
+        return results;
+    }
+
+    private TodoEntity newTodo(String title, TodoPriority priority, long version) {
+        TodoEntity entity = new TodoEntity();
+        entity.setId(idGenerator.nextId());
+        entity.setChangeVersion(version);
+        entity.setTitle(title.trim());
+        entity.setPriority(priority == null ? TodoPriority.MEDIUM : priority);
+        entity.setCompleted(false);
+        return entity;
+    }
+
+    private void applyUpdate(TodoEntity entity, String title, Boolean completed, TodoPriority priority) {
+        if (title != null && !title.trim().isEmpty()) {
+            entity.setTitle(title.trim());
+        }
+        if (completed != null) {
+            entity.setCompleted(completed);
+        }
+        if (priority != null) {
+            entity.setPriority(priority);
+        }
     }
 
     private TodoEntity findOrThrow(UUID id) {
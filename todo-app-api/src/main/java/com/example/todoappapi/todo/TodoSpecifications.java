@@ -0,0 +1,66 @@
+package com.example.todoappapi.todo;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class TodoSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TodoSpecifications() {
+    }
+
+    /**
+     * Builds only the predicates that apply, so the database can pick
+     * {@code idx_todos_completed_created_at} / {@code idx_todos_created_at} for the common cases.
+     * Search is a substring match and is checked on the rows those indexes walk, not looked up.
+     *
+     * @param filter normalized filter: {@code all}, {@code active} or {@code completed}
+     * @param search normalized (lower-cased, trimmed) search term, empty for none
+     * @param after  keyset position to continue from, or {@code null} for the first page
+     */
+    static Specification<TodoEntity> matching(String filter, String search, TodoCursor after) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            switch (filter) {
+                case "active" -> predicates.add(cb.equal(root.get("completed"), false));
+                case "completed" -> predicates.add(cb.equal(root.get("completed"), true));
+                default -> {
+                }
+            }
+
+            if (!search.isEmpty()) {
+                predicates.add(cb.like(root.get("titleLower"), "%" + escapeLike(search) + "%", LIKE_ESCAPE));
+            }
+
+            if (after != null) {
+                Path<Instant> createdAt = root.get("createdAt");
+                Path<UUID> id = root.get("id");
+                predicates.add(cb.or(
+                        cb.lessThan(createdAt, after.createdAt()),
+                        cb.and(cb.equal(createdAt, after.createdAt()), cb.lessThan(id, after.id()))
+                ));
+            }
+
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.todoappapi.todo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Record of a deleted todo so {@code GET /api/todos/changes} can tell clients what to remove.
+ */
+@Entity
+@Table(name = "todo_tombstones", indexes = {
+        @Index(name = "idx_todo_tombstones_change_version", columnList = "change_version")
+})
+public class TodoTombstone {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public long getChangeVersion() {
+        return changeVersion;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
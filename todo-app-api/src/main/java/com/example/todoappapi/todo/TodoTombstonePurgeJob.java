@@ -0,0 +1,37 @@
+package com.example.todoappapi.todo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Drops tombstones older than {@code todo.tombstones.retention}. Clients that have not synced
+ * within that window get a full snapshot from {@code GET /api/todos/changes} instead of a delta.
+ */
+@Component
+public class TodoTombstonePurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoTombstonePurgeJob.class);
+
+    private final TodoService todoService;
+    private final Duration retention;
+
+    public TodoTombstonePurgeJob(TodoService todoService, @Value("${todo.tombstones.retention:P30D}") Duration retention) {
+        this.todoService = todoService;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.tombstones.purge-interval:PT1H}",
+            initialDelayString = "${todo.tombstones.purge-interval:PT1H}")
+    public void purge() {
+        int removed = todoService.purgeTombstones(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.info("Purged {} tombstone(s) older than {}", removed, retention);
+        }
+    }
+}
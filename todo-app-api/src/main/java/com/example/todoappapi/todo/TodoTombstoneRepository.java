@@ -0,0 +1,40 @@
+package com.example.todoappapi.todo;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tombstones are written with insert-select statements issued just before the matching bulk
+ * delete, so recording N deletions costs one statement rather than N inserts. They are purged
+ * after {@code todo.tombstones.retention} by {@link TodoTombstonePurgeJob}.
+ */
+public interface TodoTombstoneRepository extends JpaRepository<TodoTombstone, UUID> {
+
+    @Modifying
+    @Query("""
+            insert into TodoTombstone (id, changeVersion, deletedAt)
+            select t.id, :version, :deletedAt from TodoEntity t where t.id in :ids""")
+    int recordDeleted(Collection<UUID> ids, long version, Instant deletedAt);
+
+    @Modifying
+    @Query("""
+            insert into TodoTombstone (id, changeVersion, deletedAt)
+            select t.id, :version, :deletedAt from TodoEntity t where t.completed = true""")
+    int recordDeletedCompleted(long version, Instant deletedAt);
+
+    @Query("select max(t.changeVersion) from TodoTombstone t where t.deletedAt < :cutoff")
+    Long findLastVersionDeletedBefore(Instant cutoff);
+
+    @Modifying
+    @Query("delete from TodoTombstone t where t.changeVersion <= :version")
+    int deleteThroughVersion(long version);
+
+    @Query("select t.id from TodoTombstone t where t.changeVersion > :since order by t.changeVersion")
+    List<UUID> findDeletedIdsSince(long since);
+}
@@ -0,0 +1,52 @@
+package com.example.todoappapi.todo;
+
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp followed by random bits.
+ * New ids sort after older ones, so inserts append to the right edge of the primary-key
+ * B-tree instead of landing on random pages the way {@link UUID#randomUUID()} does.
+ * <p>
+ * The 12-bit {@code rand_a} field is used as a counter seeded randomly each millisecond,
+ * which keeps ids strictly increasing for ids generated by the same instance.
+ */
+public class UuidV7Generator implements TodoIdGenerator {
+
+    private static final long VERSION_7 = 0x7000L;
+    private static final int MAX_SEQUENCE = 0xFFF;
+    private static final long VARIANT_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    private static final long VARIANT_RFC_9562 = 0x8000_0000_0000_0000L;
+
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    private long lastMillis = -1;
+    private int sequence;
+
+    public UuidV7Generator() {
+        this(Clock.systemUTC());
+    }
+
+    UuidV7Generator(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized UUID nextId() {
+        long millis = clock.millis();
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            // Start in the lower half so a burst within one millisecond rarely exhausts the counter.
+            sequence = random.nextInt(MAX_SEQUENCE / 2);
+        } else if (++sequence > MAX_SEQUENCE) {
+            // Counter exhausted or clock stepped back: borrow the next millisecond to stay monotonic.
+            lastMillis++;
+            sequence = 0;
+        }
+        long mostSigBits = (lastMillis << 16) | VERSION_7 | sequence;
+        long leastSigBits = (random.nextLong() & VARIANT_MASK) | VARIANT_RFC_9562;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -7,12 +7,22 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -25,6 +35,9 @@ class TodoControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private TodoService todoService;
+
     @Test
     void shouldCreateListToggleAndDeleteTodo() throws Exception {
         String createBody = objectMapper.writeValueAsString(new CreateTodoRequest("Ship API", TodoPriority.HIGH));
@@ -52,6 +65,232 @@ class TodoControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void shouldFilterSearchAndPageWithCursor() throws Exception {
+        String tag = "kp" + UUID.randomUUID().toString().substring(0, 8);
+        String first = createTodo("First " + tag);
+        String second = createTodo("Second " + tag.toUpperCase());
+        String third = createTodo("Third " + tag);
+        mockMvc.perform(patch("/api/todos/{id}/toggle", second)).andExpect(status().isOk());
+
+        String nextCursor = mockMvc.perform(get("/api/todos").param("search", tag).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(third))
+                .andExpect(jsonPath("$[1].id").value(second))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn()
+                .getResponse()
+                .getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/todos").param("search", tag).param("limit", "2").param("cursor", nextCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(first))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        mockMvc.perform(get("/api/todos").param("filter", "completed").param("search", tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(second));
+
+        mockMvc.perform(get("/api/todos").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldExportTodosAsNdjson() throws Exception {
+        String id = createTodo("Export " + UUID.randomUUID());
+
+        MvcResult started = mockMvc.perform(get("/api/todos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).isNotEmpty();
+        assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(id);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).has("title")).isTrue();
+        }
+    }
+
+    @Test
+    void shouldApplyBatchWithPerItemResults() throws Exception {
+        String tag = "batch" + UUID.randomUUID().toString().substring(0, 8);
+        String existing = createTodo("Existing " + tag);
+        UUID missing = UUID.randomUUID();
+        String batchBody = """
+                {"operations": [
+                  {"op": "CREATE", "title": "Created %1$s", "priority": "HIGH"},
+                  {"op": "TOGGLE", "id": "%2$s"},
+                  {"op": "UPDATE", "id": "%2$s", "title": "Renamed %1$s"},
+                  {"op": "DELETE", "id": "%3$s"},
+                  {"op": "CREATE", "title": "  "}
+                ]}
+                """.formatted(tag, existing, missing);
+
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batchBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(jsonPath("$[0].status").value("OK"))
+                .andExpect(jsonPath("$[0].todo.priority").value("HIGH"))
+                .andExpect(jsonPath("$[1].todo.completed").value(true))
+                .andExpect(jsonPath("$[2].todo.title").value("Renamed " + tag))
+                .andExpect(jsonPath("$[3].status").value("NOT_FOUND"))
+                .andExpect(jsonPath("$[4].status").value("INVALID"));
+
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        String deleteBody = """
+                {"operations": [{"op": "DELETE", "id": "%s"}]}
+                """.formatted(existing);
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(deleteBody))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("OK"));
+
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].title").value("Created " + tag));
+    }
+
+    @Test
+    void shouldServeRepeatedListsFromCacheAndInvalidateOnWrite() throws Exception {
+        String tag = "cache" + UUID.randomUUID().toString().substring(0, 8);
+        String first = createTodo("Cached " + tag);
+
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(jsonPath("$.length()").value(1));
+        double hitsBefore = cacheHits();
+        mockMvc.perform(get("/api/todos").param("search", " " + tag.toUpperCase() + " "))
+                .andExpect(jsonPath("$.length()").value(1));
+        assertThat(cacheHits()).isGreaterThan(hitsBefore);
+
+        mockMvc.perform(patch("/api/todos/{id}/toggle", first)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(jsonPath("$[0].completed").value(true));
+
+        String second = createTodo("Cached again " + tag);
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(second));
+
+        mockMvc.perform(delete("/api/todos/{id}", second)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void shouldAnswerConditionalListRequestsWithNotModified() throws Exception {
+        createTodo("ETag " + UUID.randomUUID());
+
+        String etag = mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/todos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        createTodo("ETag changed " + UUID.randomUUID());
+
+        mockMvc.perform(get("/api/todos").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)));
+    }
+
+    @Test
+    void shouldTagListResponsesWithTheVersionTheyWereReadAt() throws Exception {
+        String tag = "etagver" + UUID.randomUUID().toString().substring(0, 8);
+        createTodo("Versioned " + tag);
+        mockMvc.perform(get("/api/todos").param("search", tag)).andExpect(status().isOk());
+
+        createTodo("Versioned again " + tag);
+        long version = objectMapper.readTree(mockMvc.perform(get("/api/todos/changes"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString())
+                .get("version").asLong();
+
+        mockMvc.perform(get("/api/todos").param("search", tag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"" + version + "\""))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void shouldReturnOnlyChangesAndTombstonesSinceVersion() throws Exception {
+        String kept = createTodo("Sync kept " + UUID.randomUUID());
+        String removed = createTodo("Sync removed " + UUID.randomUUID());
+
+        long since = objectMapper.readTree(mockMvc.perform(get("/api/todos/changes"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.deletedIds.length()").value(0))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString())
+                .get("version").asLong();
+
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.upserts.length()").value(0))
+                .andExpect(jsonPath("$.deletedIds.length()").value(0));
+
+        mockMvc.perform(patch("/api/todos/{id}/toggle", kept)).andExpect(status().isOk());
+        mockMvc.perform(delete("/api/todos/{id}", removed)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(since + 2))
+                .andExpect(jsonPath("$.upserts.length()").value(1))
+                .andExpect(jsonPath("$.upserts[0].id").value(kept))
+                .andExpect(jsonPath("$.upserts[0].completed").value(true))
+                .andExpect(jsonPath("$.deletedIds.length()").value(1))
+                .andExpect(jsonPath("$.deletedIds[0]").value(removed))
+                .andExpect(jsonPath("$.full").value(false));
+    }
+
+    @Test
+    void shouldSendFullSnapshotWhenDeltaCannotBeBuilt() throws Exception {
+        String removed = createTodo("Purged " + UUID.randomUUID());
+        long since = changesVersion();
+        mockMvc.perform(delete("/api/todos/{id}", removed)).andExpect(status().isOk());
+        String kept = createTodo("Survivor " + UUID.randomUUID());
+
+        todoService.purgeTombstones(Instant.now().plusSeconds(1));
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.full").value(true))
+                .andExpect(jsonPath("$.deletedIds.length()").value(0))
+                .andExpect(jsonPath("$.upserts[0].id").value(kept));
+
+        long current = changesVersion();
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(current)))
+                .andExpect(jsonPath("$.full").value(false));
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(current + 1)))
+                .andExpect(jsonPath("$.full").value(true));
+
+        mockMvc.perform(delete("/api/todos")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(current)))
+                .andExpect(jsonPath("$.full").value(true))
+                .andExpect(jsonPath("$.upserts.length()").value(0));
+    }
+
     @Test
     void shouldValidateCreateRequest() throws Exception {
         String invalidBody = objectMapper.writeValueAsString(new CreateTodoRequest("   ", TodoPriority.LOW));
@@ -62,5 +301,37 @@ class TodoControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.title").exists());
     }
+
+    private double cacheHits() throws Exception {
+        String json = mockMvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:todoLists")
+                        .param("tag", "result:hit"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).at("/measurements/0/value").asDouble();
+    }
+
+    private long changesVersion() throws Exception {
+        String json = mockMvc.perform(get("/api/todos/changes"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("version").asLong();
+    }
+
+    private String createTodo(String title) throws Exception {
+        String body = objectMapper.writeValueAsString(new CreateTodoRequest(title, TodoPriority.MEDIUM));
+        String json = mockMvc.perform(post("/api/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("id").asText();
+    }
 }
 
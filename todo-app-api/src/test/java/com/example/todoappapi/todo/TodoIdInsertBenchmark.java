@@ -0,0 +1,156 @@
+package com.example.todoappapi.todo;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Compares insert throughput and on-disk size of the {@code todos} table for random (v4) and
+ * time-ordered (v7) ids. Uses the H2 file settings from {@code application.yml}, pointed at a
+ * separate file per strategy so application data is never touched.
+ * <p>
+ * Not part of the regular test run; invoke explicitly:
+ * <pre>
+ * mvn test -Dtest=TodoIdInsertBenchmark -Dbenchmark.rows=1000000
+ * </pre>
+ */
+@Tag("benchmark")
+class TodoIdInsertBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int JDBC_BATCH_SIZE = 50;
+    private static final int COMMIT_INTERVAL = 1_000;
+
+    @Test
+    void compareRandomAndTimeOrderedIds() throws Exception {
+        String configuredUrl = configuredDatasourceUrl();
+        System.out.printf("%nInserting %,d rows per strategy (base url %s)%n", ROWS, configuredUrl);
+        System.out.printf("%-8s %14s %12s %16s %14s%n", "ids", "elapsed ms", "rows/s", "disk used (KB)", "file (KB)");
+
+        run("v4", UUID::randomUUID, configuredUrl);
+        run("v7", new UuidV7Generator(), configuredUrl);
+    }
+
+    private void run(String label, TodoIdGenerator generator, String configuredUrl) throws SQLException, IOException {
+        Path dbFile = benchmarkFile(configuredUrl, label);
+        deleteDatabaseFiles(dbFile);
+        String url = "jdbc:h2:file:" + dbFile + urlOptions(configuredUrl);
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            createSchema(connection);
+            connection.setAutoCommit(false);
+
+            long started = System.nanoTime();
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into todos (id, title, completed, priority, created_at) values (?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= ROWS; i++) {
+                    insert.setObject(1, generator.nextId());
+                    insert.setString(2, "Benchmark todo " + i);
+                    insert.setBoolean(3, (i & 3) == 0);
+                    insert.setString(4, TodoPriority.MEDIUM.name());
+                    insert.setTimestamp(5, Timestamp.from(Instant.now()));
+                    insert.addBatch();
+                    if (i % JDBC_BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                    if (i % COMMIT_INTERVAL == 0) {
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+            long diskUsed;
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("checkpoint sync");
+                try (ResultSet rs = statement.executeQuery("select disk_space_used('TODOS')")) {
+                    rs.next();
+                    diskUsed = rs.getLong(1);
+                }
+            }
+            long fileSize = Files.size(Path.of(dbFile + ".mv.db"));
+            System.out.printf("%-8s %,14d %,12d %,16d %,14d%n",
+                    label, elapsedMs, ROWS * 1000L / Math.max(1, elapsedMs), diskUsed / 1024, fileSize / 1024);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table todos (
+                        id uuid not null primary key,
+                        title varchar(255) not null,
+                        title_lower varchar(255) generated always as (lower(title)),
+                        completed boolean not null,
+                        priority varchar(255) not null,
+                        created_at timestamp(6) with time zone not null
+                    )""");
+            statement.execute("create index idx_todos_created_at on todos (created_at, id)");
+            statement.execute("create index idx_todos_completed_created_at on todos (completed, created_at, id)");
+        }
+    }
+
+    private static String configuredDatasourceUrl() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        Properties properties = yaml.getObject();
+        return properties.getProperty("spring.datasource.url");
+    }
+
+    private static Path benchmarkFile(String configuredUrl, String label) {
+        String path = configuredUrl.substring("jdbc:h2:file:".length());
+        int options = path.indexOf(';');
+        if (options >= 0) {
+            path = path.substring(0, options);
+        }
+        return Path.of(path + "-idbench-" + label).toAbsolutePath();
+    }
+
+    /** Keeps the configured H2 options except AUTO_SERVER, which only matters for shared access. */
+    private static String urlOptions(String configuredUrl) {
+        int options = configuredUrl.indexOf(';');
+        if (options < 0) {
+            return "";
+        }
+        StringBuilder kept = new StringBuilder();
+        for (String option : configuredUrl.substring(options + 1).split(";")) {
+            if (!option.isBlank() && !option.toUpperCase(Locale.ROOT).startsWith("AUTO_SERVER")) {
+                kept.append(';').append(option);
+            }
+        }
+        return kept.toString();
+    }
+
+    private static void deleteDatabaseFiles(Path dbFile) throws IOException {
+        Path dir = dbFile.getParent();
+        if (!Files.isDirectory(dir)) {
+            Files.createDirectories(dir);
+            return;
+        }
+        String prefix = dbFile.getFileName().toString() + ".";
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().startsWith(prefix)).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+}
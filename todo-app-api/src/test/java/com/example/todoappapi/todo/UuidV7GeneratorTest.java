@@ -0,0 +1,64 @@
+package com.example.todoappapi.todo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void shouldEmitVersion7IdsCarryingTheTimestamp() {
+        Instant now = Instant.parse("2026-04-29T15:00:00Z");
+        UUID id = new UuidV7Generator(Clock.fixed(now, ZoneOffset.UTC)).nextId();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(now.toEpochMilli());
+    }
+
+    @Test
+    void shouldStayMonotonicWithinAMillisecondAndWhenTheClockStepsBack() {
+        MutableClock clock = new MutableClock(Instant.parse("2026-04-29T15:00:00Z"));
+        UuidV7Generator generator = new UuidV7Generator(clock);
+
+        UUID previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.instant = clock.instant.minusSeconds(1);
+            }
+            UUID next = generator.nextId();
+            assertThat(Long.compareUnsigned(next.getMostSignificantBits(), previous.getMostSignificantBits()))
+                    .isPositive();
+            previous = next;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
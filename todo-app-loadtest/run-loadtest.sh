@@ -0,0 +1,71 @@
+#!/bin/sh
+# Runs the same fixed-concurrency load test against todo-app-api in platform-thread and
+# virtual-thread mode and prints both reports. Each mode gets a fresh H2 database file.
+#
+# Usage: ./run-loadtest.sh [concurrency] [warmupSeconds] [durationSeconds]
+# POOL_SIZE (default 10) is the JDBC pool size used by both modes, so only the threading differs.
+# STARTUP_TIMEOUT (seconds, default 120) bounds the wait for the API to become healthy.
+set -e
+
+CONCURRENCY="${1:-200}"
+WARMUP="${2:-10}"
+DURATION="${3:-30}"
+PORT="${PORT:-18080}"
+POOL_SIZE="${POOL_SIZE:-10}"
+STARTUP_TIMEOUT="${STARTUP_TIMEOUT:-120}"
+HERE="$(cd "$(dirname "$0")" && pwd)"
+API_DIR="$HERE/../todo-app-api"
+
+echo "[INFO] Building todo-app-api and todo-app-loadtest"
+(cd "$API_DIR" && mvn -q -DskipTests package)
+(cd "$HERE" && mvn -q package)
+
+# Whatever happens (load test failure under set -e, Ctrl-C), don't leave the API running.
+API_PID=""
+stop_api() {
+  if [ -n "$API_PID" ]; then
+    kill "$API_PID" 2> /dev/null || true
+    wait "$API_PID" 2> /dev/null || true
+    API_PID=""
+  fi
+}
+trap stop_api EXIT
+trap 'exit 130' INT TERM
+
+API_JAR="$(ls "$API_DIR"/target/todo-app-api-*.jar | grep -v original | head -n 1)"
+LOADTEST_JAR="$HERE/target/todo-app-loadtest-0.0.1-SNAPSHOT.jar"
+
+run_mode() {
+  MODE="$1"
+  PROFILE="$2"
+  DB_DIR="$HERE/target/loadtest-db/$MODE"
+  rm -rf "$DB_DIR"
+
+  echo "[INFO] Starting todo-app-api in $MODE mode on port $PORT with $POOL_SIZE JDBC connections"
+  java -jar "$API_JAR" \
+    --server.port="$PORT" \
+    --spring.profiles.active="$PROFILE" \
+    --spring.datasource.url="jdbc:h2:file:$DB_DIR/todo-app-api" \
+    --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+    > "$HERE/target/todo-app-api-$MODE.log" 2>&1 &
+  API_PID=$!
+
+  WAITED=0
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    if ! kill -0 "$API_PID" 2> /dev/null || [ "$WAITED" -ge "$STARTUP_TIMEOUT" ]; then
+      echo "[ERROR] todo-app-api ($MODE) not healthy after ${WAITED}s; see target/todo-app-api-$MODE.log"
+      tail -n 20 "$HERE/target/todo-app-api-$MODE.log"
+      exit 1
+    fi
+    sleep 1
+    WAITED=$((WAITED + 1))
+  done
+
+  java -jar "$LOADTEST_JAR" --base-url "http://localhost:$PORT" \
+    --concurrency "$CONCURRENCY" --warmup "$WARMUP" --duration "$DURATION" --label "$MODE"
+
+  stop_api
+}
+
+run_mode platform default
+run_mode virtual virtual
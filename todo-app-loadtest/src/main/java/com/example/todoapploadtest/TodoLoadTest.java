@@ -0,0 +1,248 @@
+package com.example.todoapploadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for the CRUD endpoints of {@code todo-app-api}.
+ * <p>
+ * Each of {@code --concurrency} workers repeats create → list → update → toggle → delete
+ * against {@code /api/todos} for {@code --duration}, after a {@code --warmup} whose samples
+ * are discarded. Latency percentiles are reported per endpoint, plus overall throughput.
+ * <p>
+ * Usage:
+ * <pre>
+ * java -jar target/todo-app-loadtest-0.0.1-SNAPSHOT.jar --base-url http://localhost:8080 \
+ *      --concurrency 200 --warmup 10 --duration 30 --label virtual
+ * </pre>
+ */
+public class TodoLoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*\"([0-9a-fA-F-]{36})\"");
+
+    enum Operation {
+        CREATE,
+        LIST,
+        UPDATE,
+        TOGGLE,
+        DELETE
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "64"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+        String label = options.getOrDefault("label", "run");
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+
+        System.out.printf("Load test '%s': %s, concurrency=%d, warmup=%ds, duration=%ds%n",
+                label, baseUrl, concurrency, warmupSeconds, durationSeconds);
+
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long stopAt = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Worker> workers = new ArrayList<>(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Worker worker = new Worker(client, baseUrl, i, measureFrom, stopAt);
+            workers.add(worker);
+            pool.execute(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        pool.shutdown();
+        clientExecutor.shutdown();
+
+        report(label, workers, durationSeconds);
+    }
+
+    private static void report(String label, List<Worker> workers, int durationSeconds) {
+        System.out.printf("%n%-8s %10s %10s %10s %10s %10s%n", "endpoint", "requests", "p50 ms", "p99 ms", "max ms", "errors");
+        long totalRequests = 0;
+        long totalErrors = 0;
+        List<long[]> all = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder merged = new LatencyRecorder();
+            long errors = 0;
+            for (Worker worker : workers) {
+                merged.addAll(worker.latencies.get(operation));
+                errors += worker.errors.get(operation)[0];
+            }
+            long[] sorted = merged.sorted();
+            all.add(sorted);
+            totalRequests += sorted.length;
+            totalErrors += errors;
+            System.out.printf("%-8s %,10d %10.2f %10.2f %10.2f %,10d%n", operation.name().toLowerCase(Locale.ROOT), sorted.length,
+                    millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]), errors);
+        }
+        long[] combined = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("%-8s %,10d %10.2f %10.2f %10.2f %,10d%n", "all", combined.length,
+                millis(percentile(combined, 0.50)), millis(percentile(combined, 0.99)),
+                millis(combined.length == 0 ? 0 : combined[combined.length - 1]), totalErrors);
+        System.out.printf("%nRESULT label=%s throughput=%.1f req/s p50=%.2fms p99=%.2fms errors=%d%n",
+                label, totalRequests / (double) durationSeconds,
+                millis(percentile(combined, 0.50)), millis(percentile(combined, 0.99)), totalErrors);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static final class Worker implements Runnable {
+        private final HttpClient client;
+        private final String baseUrl;
+        private final int workerId;
+        private final long measureFrom;
+        private final long stopAt;
+        private final Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, long[]> errors = new EnumMap<>(Operation.class);
+
+        private Worker(HttpClient client, String baseUrl, int workerId, long measureFrom, long stopAt) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.workerId = workerId;
+            this.measureFrom = measureFrom;
+            this.stopAt = stopAt;
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new LatencyRecorder());
+                errors.put(operation, new long[1]);
+            }
+        }
+
+        @Override
+        public void run() {
+            long iteration = 0;
+            while (System.nanoTime() < stopAt) {
+                iteration++;
+                String title = "load-" + workerId + "-" + iteration;
+                String created = send(Operation.CREATE, request("/api/todos")
+                        .POST(json("{\"title\":\"" + title + "\",\"priority\":\"MEDIUM\"}")));
+                send(Operation.LIST, request("/api/todos?limit=20").GET());
+                String id = created == null ? null : extractId(created);
+                if (id == null) {
+                    continue;
+                }
+                send(Operation.UPDATE, request("/api/todos/" + id)
+                        .method("PATCH", json("{\"title\":\"" + title + " updated\"}")));
+                send(Operation.TOGGLE, request("/api/todos/" + id + "/toggle")
+                        .method("PATCH", HttpRequest.BodyPublishers.noBody()));
+                send(Operation.DELETE, request("/api/todos/" + id).DELETE());
+            }
+        }
+
+        private String send(Operation operation, HttpRequest.Builder builder) {
+            long started = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+                long finished = System.nanoTime();
+                boolean ok = response.statusCode() < 400;
+                if (started >= measureFrom && finished <= stopAt) {
+                    latencies.get(operation).record(finished - started);
+                    if (!ok) {
+                        errors.get(operation)[0]++;
+                    }
+                }
+                return ok ? response.body() : null;
+            } catch (Exception ex) {
+                if (started >= measureFrom) {
+                    errors.get(operation)[0]++;
+                }
+                if (ex instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+        }
+
+        private static HttpRequest.BodyPublisher json(String body) {
+            return HttpRequest.BodyPublishers.ofString(body);
+        }
+
+        private static String extractId(String body) {
+            Matcher matcher = ID.matcher(body);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+
+    /** Append-only buffer of latency samples in nanoseconds; one per worker, so no locking. */
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1024];
+        private int size;
+
+        void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.samples[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
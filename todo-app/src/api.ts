@@ -1,6 +1,6 @@
 import { Platform } from 'react-native';
 
-import { Todo, TodoFilter, TodoPriority } from './types';
+import { Todo, TodoChanges, TodoFilter, TodoPriority } from './types';
 import { withRetry } from './retry';
 
 type ApiPriority = 'HIGH' | 'MEDIUM' | 'LOW';
@@ -84,6 +84,18 @@ export async function fetchTodos(filter: TodoFilter, search: string): Promise<To
   return apiTodos.map(mapTodo);
 }
 
+/**
+ * Fetches everything written or deleted after `since` (a full snapshot when omitted, or when
+ * the server can no longer produce a delta from `since`).
+ */
+export async function fetchTodoChanges(since: number | null): Promise<TodoChanges> {
+  const query = since === null ? '' : `?since=${since}`;
+  const changes = await request<{ version: number; upserts: ApiTodo[]; deletedIds: string[]; full: boolean }>(
+    `/api/todos/changes${query}`,
+  );
+  return { ...changes, upserts: changes.upserts.map(mapTodo) };
+}
+
 export async function createTodoApi(title: string, priority: TodoPriority): Promise<Todo> {
   const body = JSON.stringify({ title, priority: toApiPriority(priority) });
   const apiTodo = await request<ApiTodo>('/api/todos', { method: 'POST', body });
@@ -121,5 +133,36 @@ export async function clearAllApi(): Promise<void> {
   await request<void>('/api/todos', { method: 'DELETE' });
 }
 
+export type TodoBatchOperation =
+  | { op: 'CREATE'; title: string; priority?: TodoPriority; completed?: boolean }
+  | { op: 'UPDATE'; id: string; title?: string; completed?: boolean; priority?: TodoPriority }
+  | { op: 'TOGGLE'; id: string }
+  | { op: 'DELETE'; id: string };
+
+export type TodoBatchResult = {
+  index: number;
+  status: 'OK' | 'NOT_FOUND' | 'INVALID';
+  todo: Todo | null;
+  error: string | null;
+};
+
+type ApiTodoBatchResult = Omit<TodoBatchResult, 'todo'> & { todo: ApiTodo | null };
+
+/**
+ * Replays queued offline mutations in one request and one server transaction.
+ * Results come back in the same order as `operations`.
+ */
+export async function applyTodoBatchApi(operations: TodoBatchOperation[]): Promise<TodoBatchResult[]> {
+  const body = JSON.stringify({
+    operations: operations.map((operation) =>
+      'priority' in operation && operation.priority !== undefined
+        ? { ...operation, priority: toApiPriority(operation.priority) }
+        : operation,
+    ),
+  });
+  const results = await request<ApiTodoBatchResult[]>('/api/todos/batch', { method: 'POST', body });
+  return results.map((result) => ({ ...result, todo: result.todo ? mapTodo(result.todo) : null }));
+}
+
 export { API_BASE_URL };
 
@@ -1,6 +1,9 @@
 import AsyncStorage from '@react-native-async-storage/async-storage';
+import { fetchTodoChanges } from './api';
+import { applyTodoChanges } from './todoUtils';
 import { Todo } from './types';
 const TODO_STORAGE_KEY = 'funky-professional-todos-v1';
+const SYNC_VERSION_STORAGE_KEY = 'funky-professional-todos-sync-version-v1';
 export async function loadTodos(): Promise<Todo[]> {
   const raw = await AsyncStorage.getItem(TODO_STORAGE_KEY);
   if (!raw) {
@@ -21,6 +24,28 @@ export async function saveTodos(todos: Todo[]): Promise<void> {
 }
 
 export async function clearTodosStorage(): Promise<void> {
-  await AsyncStorage.removeItem(TODO_STORAGE_KEY);
+  await AsyncStorage.multiRemove([TODO_STORAGE_KEY, SYNC_VERSION_STORAGE_KEY]);
+}
+
+async function loadSyncVersion(): Promise<number | null> {
+  const raw = await AsyncStorage.getItem(SYNC_VERSION_STORAGE_KEY);
+  const version = raw === null ? NaN : Number(raw);
+  return Number.isFinite(version) ? version : null;
+}
+
+/**
+ * Brings the cached todos up to date using only what changed since the last sync;
+ * the first sync (or one after clearing storage) downloads a full snapshot, and so
+ * does one the server marks `full` because its deletion history no longer reaches back.
+ */
+export async function syncTodos(): Promise<Todo[]> {
+  const [cached, since] = await Promise.all([loadTodos(), loadSyncVersion()]);
+  const changes = await fetchTodoChanges(since);
+  const merged = applyTodoChanges(since === null || changes.full ? [] : cached, changes);
+  await AsyncStorage.multiSet([
+    [TODO_STORAGE_KEY, JSON.stringify(merged)],
+    [SYNC_VERSION_STORAGE_KEY, String(changes.version)],
+  ]);
+  return merged;
 }
 
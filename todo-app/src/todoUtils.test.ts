@@ -1,5 +1,6 @@
 import { describe, expect, it } from 'vitest';
 import {
+  applyTodoChanges,
   clearCompleted,
   createTodo,
   deleteTodo,
@@ -39,4 +40,21 @@ describe('todoUtils', () => {
     expect(filterAndSearchTodos(initial, 'all', 'deploy')).toHaveLength(1);
     expect(clearCompleted(initial)).toHaveLength(1);
   });
+  it('applies a sync delta of upserts and deletions', () => {
+    const cached: Todo[] = [
+      { id: 'a', title: 'Keep', completed: false, priority: 'low', createdAt: 1 },
+      { id: 'b', title: 'Remove', completed: false, priority: 'low', createdAt: 2 },
+    ];
+    const merged = applyTodoChanges(cached, {
+      version: 7,
+      upserts: [
+        { id: 'a', title: 'Keep', completed: true, priority: 'low', createdAt: 1 },
+        { id: 'c', title: 'New', completed: false, priority: 'high', createdAt: 3 },
+      ],
+      deletedIds: ['b'],
+      full: false,
+    });
+    expect(merged.map((todo) => todo.id).sort()).toEqual(['a', 'c']);
+    expect(merged.find((todo) => todo.id === 'a')?.completed).toBe(true);
+  });
 });
@@ -1,4 +1,4 @@
-import { Todo, TodoFilter, TodoPriority } from './types';
+import { Todo, TodoChanges, TodoFilter, TodoPriority } from './types';
 
 export function createTodo(title: string, priority: TodoPriority = 'medium'): Todo {
   const trimmed = title.trim();
@@ -61,3 +61,13 @@ export function filterAndSearchTodos(
     .sort((a, b) => b.createdAt - a.createdAt);
 }
 
+export function applyTodoChanges(todos: Todo[], changes: TodoChanges): Todo[] {
+  const deleted = new Set(changes.deletedIds);
+  const byId = new Map(todos.filter((todo) => !deleted.has(todo.id)).map((todo) => [todo.id, todo]));
+  for (const todo of changes.upserts) {
+    if (!deleted.has(todo.id)) {
+      byId.set(todo.id, todo);
+    }
+  }
+  return [...byId.values()];
+}
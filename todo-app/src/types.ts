@@ -10,3 +10,10 @@ export type Todo = {
   createdAt: number;
 };
 
+export type TodoChanges = {
+  version: number;
+  upserts: Todo[];
+  deletedIds: string[];
+  // Set when `upserts` is a full snapshot that replaces the cached todos.
+  full: boolean;
+};